@@ -43,7 +43,7 @@ public class CancelFactors extends Algorithm {
 	
 	@Override
 	public Step execute(Algebra algebra) {
-		Fraction frac = (Fraction) algebra;
+		final Fraction frac = (Fraction) algebra;
 		
 		//get factors of top and bottom
 		Map<AlgebraicParticle, Integer> factorsTop = factors(frac.getTop()),
@@ -92,22 +92,26 @@ public class CancelFactors extends Algorithm {
 			else result = done.getTop().cloneWithNewSign(sign);
 		}
 		
-		Step step = new Step(result);
-
-		AlgebraicParticle[] commonFactorsArray = commonFactors.toArray(new AlgebraicParticle[commonFactors.size()]);
-		//if there were factors, explain. There aren't always factors; e.g. 4/1 simplifies to 4
-		int count = commonFactorsArray.length;
-		if(count != 0) {
-			step.explain("In the fraction ").explain(frac)
-			.explain(" the common factor" + (count == 1 ? " is " : "s are "))
-			.list(commonFactorsArray).explain(". Dividing top and bottom by ");
-			//specify the term to divide by if there's only 1, otherwise just say "these"
-			if(count == 1) step.explain(commonFactorsArray[0]);
-			else step.explain("these");
-			step.explain(" leaves ").explain(result).explain(".");
-		}
-		//there weren't any factors that could cancel
-		else step.explain("Simplify ").explain(frac).explain(" to get ").explain(result);
+		final AlgebraicParticle[] commonFactorsArray = commonFactors.toArray(new AlgebraicParticle[commonFactors.size()]);
+		final AlgebraicParticle simplified = result;
+		Step step = new Step(result) {
+			@Override
+			protected void buildExplanation() {
+				//if there were factors, explain. There aren't always factors; e.g. 4/1 simplifies to 4
+				int count = commonFactorsArray.length;
+				if(count != 0) {
+					explain("In the fraction ", frac, " the common factor" + (count == 1 ? " is " : "s are "));
+					list(commonFactorsArray);
+					explain(". Dividing top and bottom by ");
+					//specify the term to divide by if there's only 1, otherwise just say "these"
+					if(count == 1) explain(commonFactorsArray[0]);
+					else explain("these");
+					explain(" leaves ", simplified, ".");
+				}
+				//there weren't any factors that could cancel
+				else explain("Simplify ", frac, " to get ", simplified);
+			}
+		};
 		
 		return step;
 	}
@@ -153,7 +157,7 @@ public class CancelFactors extends Algorithm {
 			//calculate the primes
 			Long[] primes = Util.primeFactors(Long.parseLong(number.getInteger()));
 			//add them to the map
-			for(long prime : primes) addToMap(factors, new Number(Long.toString(prime)));
+			for(long prime : primes) addToMap(factors, Number.valueOf(prime));
 			//if the number is negative, add -1 to the map
 			if(!algebra.sign()) addToMap(factors, Number.NEGATIVE_ONE);
 		}
@@ -271,7 +275,7 @@ public class CancelFactors extends Algorithm {
 			}
 		}
 		//add the product back into the map
-		if(product != 1) map.put(new Number(true, String.valueOf(product), null, null, 1), 1);
+		if(product != 1) map.put(Number.valueOf(product), 1);
 	}
 	
 	/**
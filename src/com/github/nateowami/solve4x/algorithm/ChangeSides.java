@@ -39,12 +39,19 @@ public class ChangeSides extends Algorithm {
 
 	@Override
 	public Step execute(Algebra algebra) {
-		Equation equation = (Equation) algebra;
+		return execute(match(algebra));
+	}
+	
+	@Override
+	public Step execute(Match match) {
+		Equation equation = (Equation) match.getAlgebra();
 		AlgebraicParticle first = equation.left(), second = equation.right();
 		Expression left = first instanceof Expression ? (Expression) first : new Expression(true, list(first), 1),
 				right = second instanceof Expression ? (Expression) second : new Expression(true, list(second), 1);
 		
-		boolean[] map1 = constantnessMap(left), map2 = constantnessMap(right);
+		//which terms are constant on each side (a side that isn't an Expression is a single term)
+		boolean[][] maps = (boolean[][]) match.getAnalysis();
+		boolean[] map1 = maps[0], map2 = maps[1];
 		//count how many are constant on each side
 		int const1 = 0, const2 = 0;
 		for(boolean bool : map1) if(bool) const1++;
@@ -123,28 +130,41 @@ public class ChangeSides extends Algorithm {
 		
 		//clone the equation, putting source and dest beside each other, in the proper order
 		Equation eq = new Equation(putConstOnRight == moveConstants ? removed : added, putConstOnRight != moveConstants ? removed : added);
-		Step step = new Step(eq);
-		return step.explain("We need to move ").list(move)
-				.explain(" to the " + (putConstOnRight == moveConstants ? "right" : "left") + " and change the sign" + (move.size() == 1 ? "" : "s") + ".");
+		final ArrayList<AlgebraicParticle> moved = move;
+		final boolean toRight = putConstOnRight == moveConstants;
+		return new Step(eq) {
+			@Override
+			protected void buildExplanation() {
+				explain("We need to move ");
+				list(moved);
+				explain(" to the " + (toRight ? "right" : "left") + " and change the sign" + (moved.size() == 1 ? "" : "s") + ".");
+			}
+		};
 	}
 
 	@Override
 	public int smarts(Algebra algebra) {
+		return match(algebra).getSmarts();
+	}
+	
+	@Override
+	public Match match(Algebra algebra) {
 		Equation equation = (Equation) algebra;
-		return smartsForTwoExprssions(equation.left(), equation.right());
+		//make a "map" of how which expressions are constant
+		boolean[] map1 = constantnessMap(equation.left()), map2 = constantnessMap(equation.right());
+		return new Match(algebra, smartsForTwoExprssions(equation.left(), map1, map2), new boolean[][]{map1, map2});
 	}
 
 	/**
 	 * Calculates the smarts of moving terms between a and b. Neither needs to be an Expressions; if 
 	 * one of them is not, it will be treated as a one-term Expression.
 	 * @param a An algebraicParticle to compare with b.
-	 * @param b An algebraicParticle to compare with a.
+	 * @param map1 The constantness map of a (see {@link #constantnessMap(AlgebraicParticle)}).
+	 * @param map2 The constantness map of b.
 	 * @return An approximate "smartness" of moving terms between a and b.
 	 */
-	private int smartsForTwoExprssions(AlgebraicParticle a, AlgebraicParticle b){
+	private int smartsForTwoExprssions(AlgebraicParticle a, boolean[] map1, boolean[] map2){
 		if(a.exponent() != 1) return 0;//because if an expression has an exponent, you can't move terms nicely
-		//make a "map" of how which expressions are constant
-		boolean[] map1 = constantnessMap(a), map2 = constantnessMap(b);
 		//count how many are not constant on each side
 		int count1 = 0, count2 = 0;
 		for(boolean bool : map1) if(!bool) count1++;
@@ -42,34 +42,53 @@ public class CombineLikeTerms extends Algorithm {
 	
 	@Override
 	public Step execute(Algebra algebra) {
+		return execute(match(algebra));
+	}
+	
+	@Override
+	public Step execute(Match match) {
 		//the expression to simplify
-		Expression expr = (Expression) algebra;
+		final Expression expr = (Expression) match.getAlgebra();
 		
-		//a list of lists of like terms to combine
-		ArrayList<ArrayList<AlgebraicParticle>> likeTerms = listCombinableTerms(expr);
-		ArrayList<AlgebraicParticle> combined = combineLikeTerms(likeTerms);
+		//a list of lists of like terms to combine (found when the match was made)
+		@SuppressWarnings("unchecked")
+		final ArrayList<ArrayList<AlgebraicParticle>> likeTerms = (ArrayList<ArrayList<AlgebraicParticle>>) match.getAnalysis();
+		final ArrayList<AlgebraicParticle> combined = combineLikeTerms(likeTerms);
 		AlgebraicParticle out = constructExpression(expr.sign(), removeZeros(combined), expr.exponent());
 		
 		//construct the solving step
-		Step step = new Step(out);
-		
-		//create the explanation
-		step.explain("We need to combine like terms here, in the expression ").explain(expr).explain(".\n");
-		for(int i = 0; i < likeTerms.size(); i++){
-			if (likeTerms.get(i).size() > 1) //don't explain combining a single term with itself
-					step.explain("Combine ").list(likeTerms.get(i)).explain(" to get ").explain(combined.get(i)).explain(".\n");
-		}
+		Step step = new Step(out) {
+			@Override
+			protected void buildExplanation() {
+				explain("We need to combine like terms here, in the expression ", expr, ".\n");
+				for(int i = 0; i < likeTerms.size(); i++){
+					//don't explain combining a single term with itself
+					if (likeTerms.get(i).size() > 1) {
+						explain("Combine ");
+						list(likeTerms.get(i));
+						explain(" to get ", combined.get(i), ".\n");
+					}
+				}
+			}
+		};
 		return step;
 	}
 	
-
 	@Override
 	public int smarts(Algebra algebra) {
+		return match(algebra).getSmarts();
+	}
+	
+	@Override
+	public Match match(Algebra algebra) {
 		Expression expression = (Expression) algebra;
-		int combinable = expression.length() - listCombinableTerms(expression).size();
-		if(combinable == 0) return 0;
-		else if(combinable == 1) return 7;
-		else return 9;
+		ArrayList<ArrayList<AlgebraicParticle>> likeTerms = listCombinableTerms(expression);
+		int combinable = expression.length() - likeTerms.size();
+		int smarts;
+		if(combinable == 0) smarts = 0;
+		else if(combinable == 1) smarts = 7;
+		else smarts = 9;
+		return new Match(algebra, smarts, likeTerms);
 	}
 	
 	/**
@@ -116,7 +135,7 @@ public class CombineLikeTerms extends Algorithm {
 			//combine a and b to make a term with coefficient of 2 and sign the same as a and b 
 			else return new Term(
 					a.sign(), 
-					new ArrayList<AlgebraicParticle>(Arrays.asList(new AlgebraicParticle[]{new Number(true, "2", null, null, 1), ((Variable)a).cloneWithNewSign(true)})),
+					new ArrayList<AlgebraicParticle>(Arrays.asList(new AlgebraicParticle[]{Number.valueOf(2), ((Variable)a).cloneWithNewSign(true)})),
 					a.exponent());
 		}
 		
@@ -163,7 +182,7 @@ public class CombineLikeTerms extends Algorithm {
 			else {
 				//the exponent will be 2 (sign is independent of the exponent) so we need to make a term
 				ArrayList<AlgebraicParticle> list = new ArrayList<AlgebraicParticle>(2);
-				list.add(new Number("2"));
+				list.add(Number.valueOf(2));
 				list.add(a);
 				return new Term(a.sign(), list, a.exponent());
 			}
@@ -31,23 +31,27 @@ public class ConvertToMixedNumber extends Algorithm {
 	
 	@Override
 	public Step execute(Algebra algebra) {
-		Fraction frac = (Fraction) algebra;
+		final Fraction frac = (Fraction) algebra;
 		long top = Integer.parseInt(((Number)frac.getTop()).getInteger());
 		long bottom = Integer.parseInt(((Number)frac.getBottom()).getInteger());
 		
 		//calculate the new numerator and the integer that will be added to the fraction
-		long front = top / bottom;
+		final long front = top / bottom;
 		top = top % bottom;
 		
 		Fraction properFraction = new Fraction(true, number(top), number(bottom), 1);
 		boolean sign = frac.sign() == (frac.getTop().sign() == frac.getBottom().sign());
-		MixedNumber mn = new MixedNumber(sign, number(front), properFraction, frac.exponent());
+		final MixedNumber mn = new MixedNumber(sign, number(front), properFraction, frac.exponent());
 		
-		Step step = new Step(mn);
-		step.explain("Convert ").explain(frac).explain(" to a mixed number. ")
-				.explain(frac.getBottom()).explain(" goes into ").explain(frac.getTop())
-				.explain(number(front)).explain((front == 1 ? "time" : "times") +" leaving ")
-				.explain(mn.getFraction().getTop()).explain(".");
+		Step step = new Step(mn) {
+			@Override
+			protected void buildExplanation() {
+				explain("Convert ", frac, " to a mixed number. ", 
+						frac.getBottom(), " goes into ", frac.getTop(), 
+						number(front), (front == 1 ? "time" : "times") +" leaving ", 
+						mn.getFraction().getTop(), ".");
+			}
+		};
 		
 		return step;
 	}
@@ -67,7 +71,7 @@ public class ConvertToMixedNumber extends Algorithm {
 	}
 	
 	private static Number number(long l) {
-		return new Number(true, Long.toString(l), null, null, 1);
+		return Number.valueOf(l);
 	}
 	
 }
@@ -42,29 +42,37 @@ public class Distribute extends Algorithm {
 
 	@Override
 	public Step execute(Algebra algebra) {
-		Term term = (Term) algebra;
+		final Term term = (Term) algebra;
 		Step step = null;
-		int expressionIndex = indexOfFirstExpression(term);
+		final int expressionIndex = indexOfFirstExpression(term);
 		
 		//if there is an expression right after it, such as (2x+4)(x+6)
 		if(term.length() - 1 > expressionIndex && term.get(expressionIndex + 1) instanceof Expression) {
 			Expression multiplied = multiplyExpressions(
 					(Expression)term.get(expressionIndex), 
 					(Expression)term.get(expressionIndex+1));
-			AlgebraicParticle result = insertInTerm(term, multiplied, expressionIndex, 2);
-			step = new Step(result);
-			step.explain("In the term ").explain(term).explain(", multiply each term in ")
-					.explain(term.get(expressionIndex)).explain(" by each term in ")
-					.explain(term.get(expressionIndex)).explain(" to get ").explain(result);
+			final AlgebraicParticle result = insertInTerm(term, multiplied, expressionIndex, 2);
+			step = new Step(result) {
+				@Override
+				protected void buildExplanation() {
+					explain("In the term ", term, ", multiply each term in ", 
+							term.get(expressionIndex), " by each term in ", 
+							term.get(expressionIndex), " to get ", result);
+				}
+			};
 		}
 		//else there's an expression multiplied by the whole term
 		else {
-			AlgebraicParticle multiplicand = term.cloneAndRemove(expressionIndex);
-			AlgebraicParticle result = multiplyTermByExpression(multiplicand, (Expression) term.get(expressionIndex));
-			step = new Step(result);
-			step.explain("In the term ").explain(term).explain(" multiply ").explain(multiplicand)
-					.explain(" by each term in ").explain(term.get(expressionIndex))
-					.explain(" to get ").explain(result).explain(".");
+			final AlgebraicParticle multiplicand = term.cloneAndRemove(expressionIndex);
+			final AlgebraicParticle result = multiplyTermByExpression(multiplicand, (Expression) term.get(expressionIndex));
+			step = new Step(result) {
+				@Override
+				protected void buildExplanation() {
+					explain("In the term ", term, " multiply ", multiplicand, 
+							" by each term in ", term.get(expressionIndex), 
+							" to get ", result, ".");
+				}
+			};
 		}
 		
 		return step;
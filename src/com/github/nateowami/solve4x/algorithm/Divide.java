@@ -35,24 +35,28 @@ public class Divide extends Algorithm {
 	
 	@Override
 	public Step execute(Algebra algebra) {
-		Fraction frac = (Fraction) algebra;
+		final Fraction frac = (Fraction) algebra;
 		AlgebraicParticle top = frac.getTop(), bottom = frac.getBottom();
 		
-		Number numerator = 	getNumber(top), denominator = getNumber(bottom); 
-		Number dividend = Number.divide(numerator, denominator, round);
+		final Number numerator = 	getNumber(top), denominator = getNumber(bottom); 
+		final Number dividend = Number.divide(numerator, denominator, round);
 		
 		//replace the top with the dividend
 		AlgebraicParticle newTop = replace(top, dividend);
 		AlgebraicParticle newBottom = bottom instanceof Number ? Number.ONE : ((Term)bottom).cloneAndRemove(numberIndex((Term) bottom));
 		
-		AlgebraicParticle result = newBottom.equals(Number.ONE) 
+		final AlgebraicParticle result = newBottom.equals(Number.ONE) 
 				? newTop.cloneWithNewSign(newTop.sign() == frac.sign())
 				: new Fraction(frac.sign(), newTop, newBottom, frac.exponent());
 		
-		Step step = new Step(result);
-		step.explain("In the fraction ").explain(frac).explain(" divide ").explain(numerator)
-				.explain(" by ").explain(denominator).explain(" to get ").explain(dividend)
-				.explain(".").explain("This leaves ").explain(result).explain(".");
+		Step step = new Step(result) {
+			@Override
+			protected void buildExplanation() {
+				explain("In the fraction ", frac, " divide ", numerator, 
+						" by ", denominator, " to get ", dividend, 
+						".", "This leaves ", result, ".");
+			}
+		};
 		return step;
 	}
 	
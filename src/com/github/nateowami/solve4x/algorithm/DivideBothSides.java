@@ -48,22 +48,26 @@ public class DivideBothSides extends Algorithm {
 		//the number we need to divide by (Watch for signs. In -2x we divide by -2)
 		int indexOfNumeric = indexOfNumeric(from);
 		AlgebraicParticle numeric = from.get(indexOfNumeric);
-		AlgebraicParticle divisor = numeric.cloneWithNewSign(indexOfNumeric == 0 ? from.sign() == numeric.sign() : numeric.sign());
+		final AlgebraicParticle divisor = numeric.cloneWithNewSign(indexOfNumeric == 0 ? from.sign() == numeric.sign() : numeric.sign());
 		
 		//now calculate the resulting fraction
-		Fraction frac = new Fraction(true, to, divisor, 1);
+		final Fraction frac = new Fraction(true, to, divisor, 1);
 		//the sign of the term we divide from could change if we divided by the first element
 		boolean fromSign = indexOfNumeric == 0 ? true : from.sign();
 		//and calculate the side we're moving from
-		AlgebraicParticle resultingFromSide = unwrap(from.cloneAndRemove(indexOfNumeric).cloneWithNewSign(fromSign));
+		final AlgebraicParticle resultingFromSide = unwrap(from.cloneAndRemove(indexOfNumeric).cloneWithNewSign(fromSign));
 		//calculate the final equation
 		Equation out = fromRight ? new Equation(frac, resultingFromSide) : new Equation(resultingFromSide, frac);
 		
 		//create a step and explain
-		Step step = new Step(out);
-		step.explain("Divide both sides of the equation by ").explain(divisor)
-				.explain(". This leaves ").explain(resultingFromSide).explain(" on one side, and ")
-				.explain(frac).explain(" on the other.");
+		Step step = new Step(out) {
+			@Override
+			protected void buildExplanation() {
+				explain("Divide both sides of the equation by ", divisor, 
+						". This leaves ", resultingFromSide, " on one side, and ", 
+						frac, " on the other.");
+			}
+		};
 		
 		return step;
 	}
@@ -19,6 +19,7 @@ package com.github.nateowami.solve4x.algorithm;
 
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -40,16 +41,22 @@ public class Factor extends Algorithm {
 	
 	@Override
 	public Step execute(Algebra algebra) {
-		Expression expr = (Expression) algebra;
+		return execute(match(algebra));
+	}
+	
+	@Override
+	public Step execute(Match match) {
+		final Expression expr = (Expression) match.getAlgebra();
+		Analysis analysis = (Analysis) match.getAnalysis();
 		
-		//find greatest common factor
-		Map<AlgebraicParticle, Integer> commonFactors = commonFactors(expr);
-		AlgebraicParticle gcf = construct(commonFactors);
+		//find greatest common factor (copying the analysis, which must not be modified)
+		Map<AlgebraicParticle, Integer> commonFactors = new LinkedHashMap<AlgebraicParticle, Integer>(analysis.common);
+		final AlgebraicParticle gcf = construct(commonFactors);
 		
 		//divide each term by the GCF
 		ArrayList<Map<AlgebraicParticle, Integer>> terms = new ArrayList<Map<AlgebraicParticle, Integer>>(expr.length());
 		for(int i = 0; i < expr.length(); i++) {
-			terms.add(removeCommon(factors(expr.get(i)), commonFactors));
+			terms.add(removeCommon(new LinkedHashMap<AlgebraicParticle, Integer>(analysis.terms.get(i)), commonFactors));
 		}
 		
 		//construct a new expression from the modified terms
@@ -60,33 +67,52 @@ public class Factor extends Algorithm {
 		
 		//append the the expression to the common factors and convert it to a term
 		commonFactors.put(new Expression(true, resultingTerms, 1), 1);
-		Term result = (Term) construct(commonFactors);
+		final Term result = (Term) construct(commonFactors);
 		
-		Step step = new Step(result);
-		step.explain("The greatest common factor in ").explain(algebra).explain(" is ").explain(gcf)
-				.explain(". Dividing each term by it and bring it ouside the parentheses to get ")
-				.explain(result).explain(".");
+		Step step = new Step(result) {
+			@Override
+			protected void buildExplanation() {
+				explain("The greatest common factor in ", expr, " is ", gcf, 
+						". Dividing each term by it and bring it ouside the parentheses to get ", 
+						result, ".");
+			}
+		};
 		return step;
 	}
 	
 	@Override
 	public int smarts(Algebra algebra) {
+		return match(algebra).getSmarts();
+	}
+	
+	@Override
+	public Match match(Algebra algebra) {
+		Expression expr = (Expression) algebra;
+		//factor each term, then find the factors they have in common
+		ArrayList<Map<AlgebraicParticle, Integer>> terms = new ArrayList<Map<AlgebraicParticle, Integer>>(expr.length());
+		for(int i = 0; i < expr.length(); i++) {
+			terms.add(factors(expr.get(i)));
+		}
+		Map<AlgebraicParticle, Integer> common = commonFactors(terms);
+		
 		//count the common factors and return accordingly
-		int numCommon = commonFactors((Expression) algebra).entrySet().size();
-		if(numCommon == 0) return 0;
-		else if(numCommon == 1) return 7;
-		else return 9;
+		int numCommon = common.entrySet().size();
+		int smarts;
+		if(numCommon == 0) smarts = 0;
+		else if(numCommon == 1) smarts = 7;
+		else smarts = 9;
+		return new Match(algebra, smarts, new Analysis(common, terms));
 	}
 	
 	private Map<AlgebraicParticle, Integer> factors(AlgebraicParticle a){
 		return CancelFactors.factors(a);
 	}
 	
-	//TODO: exception if expr.length() < 2; handle such things
-	private Map<AlgebraicParticle, Integer> commonFactors(Expression expr) {
-		Map<AlgebraicParticle, Integer> common = commonFactors(factors(expr.get(0)), factors(expr.get(1)));
-		for(int i = 2; i < expr.length(); i++) {
-			common = commonFactors(common, factors(expr.get(i)));
+	//TODO: exception if terms.size() < 2; handle such things
+	private Map<AlgebraicParticle, Integer> commonFactors(List<Map<AlgebraicParticle, Integer>> terms) {
+		Map<AlgebraicParticle, Integer> common = commonFactors(terms.get(0), terms.get(1));
+		for(int i = 2; i < terms.size(); i++) {
+			common = commonFactors(common, terms.get(i));
 		}
 		return common;
 	}
@@ -142,11 +168,26 @@ public class Factor extends Algorithm {
 		}
 		
 		//push the coefficient to the beginning of the list
-		if(coefficient != 1) factors.add(0, new Number(true, Integer.toString(coefficient), null, null, 1));
+		if(coefficient != 1) factors.add(0, Number.valueOf(coefficient));
 		
 		//determine the result and return
 		if(factors.size() == 1) return factors.get(0).cloneWithNewSign(sign);
 		else return new Term(sign, factors, 1);
 	}
 	
+	/**
+	 * The factors of each term of an expression, and the factors they have in common.
+	 */
+	private static class Analysis {
+		
+		private final Map<AlgebraicParticle, Integer> common;
+		private final List<Map<AlgebraicParticle, Integer>> terms;
+		
+		private Analysis(Map<AlgebraicParticle, Integer> common, List<Map<AlgebraicParticle, Integer>> terms) {
+			this.common = common;
+			this.terms = terms;
+		}
+		
+	}
+	
 }
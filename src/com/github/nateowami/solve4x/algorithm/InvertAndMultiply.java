@@ -33,13 +33,17 @@ public class InvertAndMultiply extends Algorithm {
 	@Override
 	public Step execute(Algebra algebra) {
 		//take the bottom of the fraction, invert it, and multiply it by the top
-		Fraction frac = (Fraction) algebra;
-		Fraction bottom = (Fraction) frac.getBottom();
+		final Fraction frac = (Fraction) algebra;
+		final Fraction bottom = (Fraction) frac.getBottom();
 		Fraction inverted = new Fraction(bottom.sign(), bottom.getBottom(), bottom.getTop(), bottom.exponent());
 		Term term = new Term(frac.sign(), list(frac.getTop(), inverted), frac.exponent());
 		
-		Step step = new Step(term);
-		step.explain("In the fraction ").explain(frac).explain(" invert ").explain(bottom).explain(" and multiply.");
+		Step step = new Step(term) {
+			@Override
+			protected void buildExplanation() {
+				explain("In the fraction ", frac, " invert ", bottom, " and multiply.");
+			}
+		};
 		return step;
 	}
 	
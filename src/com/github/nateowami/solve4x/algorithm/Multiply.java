@@ -41,29 +41,49 @@ public class Multiply extends Algorithm {
 	
 	@Override
 	public Step execute(Algebra algebra) {
-		Term term = (Term) algebra;
-		ArrayList<ArrayList<AlgebraicParticle>> groups = multipliableGroups(term);
+		return execute(match(algebra));
+	}
+	
+	@Override
+	public Step execute(Match match) {
+		final Term term = (Term) match.getAlgebra();
+		@SuppressWarnings("unchecked")
+		final ArrayList<ArrayList<AlgebraicParticle>> groups = (ArrayList<ArrayList<AlgebraicParticle>>) match.getAnalysis();
 		
 		//term is now the term to work on, and groups is the list of combinable AlgebraicParticles
-		Term multiplied = multiply(term, groups);
+		final Term multiplied = multiply(term, groups);
 		
-		Step step = new Step(unwrap(multiplied));
-		step.explain("In the term ").explain(term).explain(" we neeed to multiply.\n");
-		for(int i = 0; i < groups.size(); i++){
-			if(groups.get(i).size() > 1){
-				step.explain("Multiply ").list(groups.get(i)).explain(" to get ").explain(multiplied.get(i)).explain(".\n");
+		Step step = new Step(unwrap(multiplied)) {
+			@Override
+			protected void buildExplanation() {
+				explain("In the term ", term, " we neeed to multiply.\n");
+				for(int i = 0; i < groups.size(); i++){
+					if(groups.get(i).size() > 1){
+						explain("Multiply ");
+						list(groups.get(i));
+						explain(" to get ", multiplied.get(i), ".\n");
+					}
+				}
 			}
-		}
+		};
 		return step;
 	}
 	
 	@Override
 	public int smarts(Algebra algebra) {
+		return match(algebra).getSmarts();
+	}
+	
+	@Override
+	public Match match(Algebra algebra) {
 		Term term = (Term) algebra;
-		int combinable = term.length() - multipliableGroups(term).size();
-		if(combinable == 0) return 0;
-		else if(combinable == 1) return 7;
-		else return 9;
+		ArrayList<ArrayList<AlgebraicParticle>> groups = multipliableGroups(term);
+		int combinable = term.length() - groups.size();
+		int smarts;
+		if(combinable == 0) smarts = 0;
+		else if(combinable == 1) smarts = 7;
+		else smarts = 9;
+		return new Match(algebra, smarts, groups);
 	}
 	
 	/**
@@ -35,20 +35,24 @@ public class MultiplyBothSides extends Algorithm {
 	
 	@Override
 	public Step execute(Algebra algebra) {
-		Equation equation = (Equation) algebra;
+		final Equation equation = (Equation) algebra;
 		
 		// NOTICE: The some of the following was written with a baby guinea pig on my lap, so if 
 		// it's totally incoherent, I was probably just a little distracted, or else a little 
 		// fellow was helping me type. Never mind. I deleted those lines.
 		
-		AlgebraicParticle multiply = multiplyBy(equation);
+		final AlgebraicParticle multiply = multiplyBy(equation);
 		
-		Equation result = new Equation(multiply(equation.left(), multiply), multiply(equation.right(), multiply));
+		final Equation result = new Equation(multiply(equation.left(), multiply), multiply(equation.right(), multiply));
 		
-		Step step = new Step(result);
-		step.explain("Multiply both sides of ").explain(equation).explain(" by ").explain(multiply)
-				.explain(" to get ").explain(result.left()).explain(" on the left and ")
-				.explain(result.right()).explain(" on the right.");
+		Step step = new Step(result) {
+			@Override
+			protected void buildExplanation() {
+				explain("Multiply both sides of ", equation, " by ", multiply, 
+						" to get ", result.left(), " on the left and ", 
+						result.right(), " on the right.");
+			}
+		};
 		
 		return step;
 	}
@@ -93,4 +93,26 @@ public class RoundingRule {
 		return this.value < 0;
 	}
 	
+	/* (non-Javadoc)
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		return isCannedRule() ? System.identityHashCode(this) : this.value;
+	}
+	
+	/**
+	 * Tells if obj is the same rule as this one. Each predefined rule is only equal to itself (two 
+	 * of them share a value), and a constructed rule is equal to any other constructed rule with 
+	 * the same value.
+	 * @param obj The object to compare with.
+	 * @return True if obj is the same rule.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj) return true;
+		if(!(obj instanceof RoundingRule) || isCannedRule()) return false;
+		return this.value == ((RoundingRule)obj).value;
+	}
+	
 }
@@ -24,6 +24,22 @@ package com.github.nateowami.solve4x.solver;
  */
 public abstract class Algebra {
 	
+	//The fields below are worked out the first time they're needed and then remembered. Algebra is 
+	//shared between threads without locking, so each is read once into a local, worked out if it's 
+	//still unset, and written back. Two threads may both work it out, but since algebra never 
+	//changes they'll get the same value, so it doesn't matter whose write wins. They're all 
+	//volatile so a reader always sees a whole value (a plain long can be seen half written on a 
+	//32-bit JVM), and so that all three follow the same idiom.
+	
+	//the size and shape of this algebra (null until worked out)
+	private volatile Complexity complexity;
+	//the hash code of this algebra, for subclasses whose hash codes cover their whole hierarchy 
+	//(0 until worked out)
+	volatile int hash;
+	//the fingerprint of the canonical form of this algebra (see CanonicalForm), so algebra shared 
+	//by many states is only hashed once (0 until worked out)
+	volatile long canonicalHash;
+	
 	public abstract String render();
 	
 	// Make sure subclasses implement these themselves
@@ -34,4 +50,82 @@ public abstract class Algebra {
 	
 	public abstract int hashCode();
 	
+	/**
+	 * Returns the number of nodes in the algebraic hierarchy of this algebra, counting this 
+	 * algebra itself. For example, 2x+5 has 5 nodes (the expression, the term, 2, x, and 5). 
+	 * Like {@link #depth()} and {@link #variableCount()}, it's worked out the first time any of 
+	 * them is needed, and remembered after that, which is much cheaper than rendering the algebra 
+	 * to measure it.
+	 * @return The number of nodes in this algebra.
+	 */
+	public int nodeCount() {
+		return complexity().nodes;
+	}
+	
+	/**
+	 * Returns the number of levels in the algebraic hierarchy of this algebra. For example, 5 has 
+	 * a depth of 1, and 2x+5 has a depth of 3 (the expression, the term, and 2 and x).
+	 * @return The depth of this algebra.
+	 */
+	public int depth() {
+		return complexity().depth;
+	}
+	
+	/**
+	 * Returns the number of variables anywhere in the algebraic hierarchy of this algebra, counting 
+	 * each occurrence. For example, 2x+xy has 3 variables.
+	 * @return The number of variables in this algebra.
+	 */
+	public int variableCount() {
+		return complexity().variables;
+	}
+	
+	/**
+	 * @return The complexity of this algebra, working it out if this is the first time it's needed.
+	 */
+	private Complexity complexity() {
+		Complexity complexity = this.complexity;
+		if(complexity == null) this.complexity = complexity = new Complexity(this);
+		return complexity;
+	}
+	
+	/**
+	 * The size and shape of a piece of algebra. Algebra can't change its structure once it's been 
+	 * constructed, so this can be worked out once and kept.
+	 */
+	private static final class Complexity {
+		
+		private final int nodes, depth, variables;
+		
+		/**
+		 * Works out the complexity of the given algebra from the complexity of its children.
+		 * @param a The algebra.
+		 */
+		private Complexity(Algebra a) {
+			int nodes = 1, depth = 0, variables = a instanceof Variable ? 1 : 0;
+			Algebra[] children;
+			if(a instanceof Equation) children = new Algebra[]{((Equation)a).left(), ((Equation)a).right()};
+			else if(a instanceof AlgebraicCollection) {
+				AlgebraicCollection c = (AlgebraicCollection) a;
+				children = new Algebra[c.length()];
+				for(int i = 0; i < children.length; i++) children[i] = c.get(i);
+			}
+			else if(a instanceof Fraction) children = new Algebra[]{((Fraction)a).getTop(), ((Fraction)a).getBottom()};
+			else if(a instanceof MixedNumber) children = new Algebra[]{((MixedNumber)a).getNumeral(), ((MixedNumber)a).getFraction()};
+			else if(a instanceof Root) children = new Algebra[]{((Root)a).getExpr()};
+			else children = new Algebra[0];
+			
+			for(Algebra child : children) {
+				Complexity c = child.complexity();
+				nodes += c.nodes;
+				depth = Math.max(depth, c.depth);
+				variables += c.variables;
+			}
+			this.nodes = nodes;
+			this.depth = depth + 1;
+			this.variables = variables;
+		}
+		
+	}
+	
 }
@@ -47,11 +47,9 @@ public abstract class AlgebraicCollection extends AlgebraicParticle {
 	 * @return A partial clone of the collection, with element at index swapped for element.
 	 */
 	public AlgebraicCollection cloneWithNewElement(int index, AlgebraicParticle element){
-		ArrayList<AlgebraicParticle> terms = new ArrayList<AlgebraicParticle>(this.length());
-		for(int i = 0; i < this.length(); i++){
-			if(i == index) terms.add(element);
-			else terms.add(this.get(i)); 
-		}
+		//toList() copies the whole list at once
+		ArrayList<AlgebraicParticle> terms = this.toList();
+		terms.set(index, element);
 		if(this instanceof Expression) return new Expression(this.sign(), terms, this.exponent());
 		else if(this instanceof Term) return new Term(this.sign(), terms, this.exponent());
 		else throw new IllegalArgumentException("This method is only applicable for Term and Expression.");
@@ -66,7 +64,7 @@ public abstract class AlgebraicCollection extends AlgebraicParticle {
 	
 	/**
 	 * Converts this AlgebraicCollection to an ArrayList&lt;AlgebraicParticle&gt;. Naturally the 
-	 * sign and exponent cannot be included in such a list. Because AlgebraicCollections should be  
+	 * sign and exponent cannot be included in such a list. Because AlgebraicCollections are  
 	 * immutable, the list should be cloned so the instance cannot be modified in any way.
 	 * @return The AlgebraicCollection converted to an ArrayList of AlgebraicParticles.
 	 */
@@ -21,12 +21,14 @@ import com.github.nateowami.solve4x.Solve4x;
 
 /**
  * Represents an AlgebraicParticle. Subclasses include Variable, Number, Root, Fraction, Fraction, MixedNumber, Term, and Expression.
+ * AlgebraicParticles are immutable (every field is final and set when they're constructed), so 
+ * they can be shared freely, even between threads.
  * @author Nateowami
  */
-public abstract class AlgebraicParticle extends Algebra implements Cloneable {
+public abstract class AlgebraicParticle extends Algebra {
 	
-	private int exponent = 1;
-	private boolean sign = true;
+	private final int exponent;
+	private final boolean sign;
 	
 	/**
 	 * Constructs a new AlgebraicParticle (only usable by subclasses because AlgebraicParticle is abstract).
@@ -39,9 +41,12 @@ public abstract class AlgebraicParticle extends Algebra implements Cloneable {
 	}
 	
 	/**
-	 * An empty constructor for AlgebraicParticle (only usable by subclasses because AlgebraicParticle is abstract).
+	 * Constructs a new positive AlgebraicParticle with an exponent of 1 (only usable by subclasses 
+	 * because AlgebraicParticle is abstract).
 	 */
-	protected AlgebraicParticle(){};
+	protected AlgebraicParticle() {
+		this(true, 1);
+	}
 	
 	/**
 	 * @return The sign of the AlgebraicParticle (true for +, false for -).
@@ -118,27 +123,26 @@ public abstract class AlgebraicParticle extends Algebra implements Cloneable {
 		
 		//if we need to set sign or exponent (if hadPars, then for sure yes)
 		if(hadParsSecondTime || !(result instanceof Expression)) {
-			result.sign = sign;
 			// Set the exponent if it's a variable or a number, or the whole thing was surrounded 
 			// by pars. If it's a number (and not surrounded by pars)make sure it DOESN'T have a scientific notation exponent. 
 			// For example, in 2.6*10⁹, the 9 is the exponent of the 10 in scientific notation, and 
 			// doesn't belong to the whole number.
-			if(hadParsSecondTime || result instanceof Variable || result instanceof Number 
-					&& ((Number)result).getScientificNotationExponent() == null){
-				result.exponent = exponent;
-			}
+			boolean setExponent = hadParsSecondTime || result instanceof Variable || result instanceof Number 
+					&& ((Number)result).getScientificNotationExponent() == null;
+			result = result.cloneWithNewSignAndExponent(sign, setExponent ? exponent : null);
 		}
 		return result;
 	}
 	
 	/**
 	 * Works like {@link #getInstance(String, Class<? extends AlgebraicParticle>)}, with c 
-	 * (the class not to use) set to null.
+	 * (the class not to use) set to null, except that the result is interned (see 
+	 * {@link Interner}).
 	 * @param s The string to parse. 
 	 * @return An algebraic particle representing s.
 	 */
 	public static AlgebraicParticle getInstance(String s){
-		return getInstance(s, null);
+		return Interner.intern(getInstance(s, null));
 	}
 	
 	/**
@@ -283,8 +287,8 @@ public abstract class AlgebraicParticle extends Algebra implements Cloneable {
 	static private AlgebraicParticle construct(String withSign, String withExponent, String allRemoved, Class<? extends AlgebraicParticle> classes){
 		String n = classes == null ? "" : classes.getSimpleName();
 		String forNumber = allRemoved.indexOf("*10") == -1 ? allRemoved : withExponent;
-		if(!n.equals("Variable")    && Variable   .parsable(allRemoved))return new Variable(allRemoved);
-		if(!n.equals("Number")      && Number     .parsable(forNumber))return new Number(forNumber);
+		if(!n.equals("Variable")    && Variable   .parsable(allRemoved))return Variable.valueOf(allRemoved.charAt(0));
+		if(!n.equals("Number")      && Number     .parsable(forNumber))return Number.valueOf(forNumber);
 		if(!n.equals("Root")        && Root       .parsable(withExponent))   return new Root(withExponent);
 		if(!n.equals("Fraction")    && Fraction   .parsable(withExponent))   return new Fraction(withExponent);
 		if(!n.equals("MixedNumber") && MixedNumber.parsable(withExponent))   return new MixedNumber(withExponent); // XXX shouldn't this use allRemoved?
@@ -353,9 +357,8 @@ public abstract class AlgebraicParticle extends Algebra implements Cloneable {
 	}
 	
 	/**
-	 * Makes a clone of this object and sets the sign and exponent of the clone to the specified 
-	 * sign and exponent. If the sign and exponent are already at the specified values, no clone 
-	 * will occur, and this instance will simply be returned.
+	 * Makes a copy of this object with the specified sign and exponent. If the sign and exponent 
+	 * are already at the specified values, no copy is made, and this instance is simply returned.
 	 * @param sign The sign of the returned object (if null, defaults to the sign of this).
 	 * @param exponent The exponent of the returned object (if null, defaults to the exponent of this).
 	 * @return A pseudo-clone of this object
@@ -363,15 +366,18 @@ public abstract class AlgebraicParticle extends Algebra implements Cloneable {
 	public AlgebraicParticle cloneWithNewSignAndExponent(Boolean sign, Integer exponent){
 		//checks for null necessary otherwise auto unboxing will cause NullPointerException
 		if((sign == null || this.sign == sign) && (exponent  == null || this.exponent == exponent)) return this;
-		try {
-			AlgebraicParticle copy = (AlgebraicParticle) this.clone();
-			copy.sign = sign == null ? this.sign : sign;
-			copy.exponent = exponent == null ? this.exponent : exponent;
-			return copy;
-		} catch (CloneNotSupportedException e) {
-			e.printStackTrace();
-			throw new RuntimeException(e);
-		}
+		return copy(sign == null ? this.sign : sign, exponent == null ? this.exponent : exponent);
 	}
 	
+	/**
+	 * Makes a copy of this object with the specified sign and exponent, sharing everything else. 
+	 * The copy is not necessarily a new instance: numbers and variables may return a shared, 
+	 * canonical instance (see {@link Number#valueOf(long)} and 
+	 * {@link Variable#valueOf(boolean, char, int)}), so copies must never be told apart by identity.
+	 * @param sign The sign of the copy.
+	 * @param exponent The exponent of the copy.
+	 * @return The copy.
+	 */
+	protected abstract AlgebraicParticle copy(boolean sign, int exponent);
+	
 }
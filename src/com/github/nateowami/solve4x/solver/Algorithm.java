@@ -49,6 +49,30 @@ public abstract class Algorithm {
 	 */
 	public abstract int smarts(Algebra algebra);
 	
+	/**
+	 * Finds how smart it would be to use this algorithm on the given algebra, keeping whatever 
+	 * was worked out along the way so that {@link #execute(Match)} doesn't have to work it out 
+	 * again. Algorithms that analyze the algebra the same way in smarts() and execute() should 
+	 * override both this and {@link #execute(Match)}; by default the match just holds the result 
+	 * of {@link #smarts(Algebra)}.
+	 * @param algebra The equation or expression to evaluate.
+	 * @return A match holding the algebra, the smarts, and the analysis (if any).
+	 */
+	public Match match(Algebra algebra) {
+		return new Match(algebra, smarts(algebra), null);
+	}
+	
+	/**
+	 * Applies the algorithm on the algebra of a match returned by {@link #match(Algebra)}, using 
+	 * the analysis in it instead of working it out again. The same match may be executed more 
+	 * than once, even by several threads at once, so the analysis must not be modified.
+	 * @param match A match returned by this algorithm's match(Algebra) method.
+	 * @return The step for solving.
+	 */
+	public Step execute(Match match) {
+		return execute(match.getAlgebra());
+	}
+	
 	/**
 	 * Given a, if it is an Expression or Term with length one, it returns the AlgebraicParticle 
 	 * inside it. Otherwise it returns a.
@@ -80,4 +104,51 @@ public abstract class Algorithm {
 		return (AlgebraicParticle) unwrap((Algebra)a);
 	}
 	
+	/**
+	 * The result of evaluating an algorithm on a piece of algebra: the algebra, the smarts of the 
+	 * algorithm for it, and whatever the algorithm worked out about the algebra to get the smarts, 
+	 * so it can be used again when the algorithm is executed.
+	 */
+	public static class Match {
+		
+		private final Algebra algebra;
+		private final int smarts;
+		private final Object analysis;
+		
+		/**
+		 * Constructs a new Match.
+		 * @param algebra The algebra that was evaluated.
+		 * @param smarts The smarts of the algorithm for the algebra.
+		 * @param analysis What the algorithm worked out about the algebra (may be null). It must 
+		 * not be modified once the Match has been created.
+		 */
+		public Match(Algebra algebra, int smarts, Object analysis) {
+			this.algebra = algebra;
+			this.smarts = smarts;
+			this.analysis = analysis;
+		}
+		
+		/**
+		 * @return The algebra that was evaluated.
+		 */
+		public Algebra getAlgebra() {
+			return algebra;
+		}
+		
+		/**
+		 * @return The smarts of the algorithm for the algebra.
+		 */
+		public int getSmarts() {
+			return smarts;
+		}
+		
+		/**
+		 * @return What the algorithm worked out about the algebra (may be null).
+		 */
+		public Object getAnalysis() {
+			return analysis;
+		}
+		
+	}
+	
 }
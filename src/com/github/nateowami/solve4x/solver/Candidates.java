@@ -0,0 +1,174 @@
+/*
+    Solve4x - An algebra solver that shows its work
+    Copyright (C) 2015  Nathaniel Paulus
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.nateowami.solve4x.solver;
+
+import java.util.Arrays;
+
+/**
+ * The places algorithms could be used on a partial solution (each one a candidate for the next 
+ * step), ranked by smarts, highest first. Candidates with the same smarts stay in the order they 
+ * were added. Only the algorithm, the node it would work on, and its match for the node are kept, 
+ * so finding candidates is cheap; the step itself is only created when the search gets to it 
+ * (see {@link #next()}).
+ * @author Nateowami
+ */
+class Candidates {
+	
+	//the partial solution the candidates would add a step to
+	private final Solution solution;
+	//the estimated cost of the partial solution
+	private final int cost;
+	//the smarts, algorithm, node, and match of each candidate, in the order they were added
+	private int[] smarts = new int[8];
+	private Algorithm[] algorithms = new Algorithm[8];
+	private Tree[] nodes = new Tree[8];
+	private Algorithm.Match[] matches = new Algorithm.Match[8];
+	private int size = 0;
+	//the indexes of the candidates, from highest smarts to lowest (null until sorted)
+	private int[] ranking;
+	//the rank of the next candidate to be taken
+	private int next = 0;
+	
+	/**
+	 * Creates an empty list of candidates for the next step of a partial solution.
+	 * @param solution The partial solution.
+	 * @param cost The estimated cost of the partial solution (see {@link #nextCost()}), or 0 if 
+	 * it won't be needed.
+	 */
+	Candidates(Solution solution, int cost) {
+		this.solution = solution;
+		this.cost = cost;
+	}
+	
+	/**
+	 * @return The partial solution the candidates would add a step to.
+	 */
+	Solution solution() {
+		return solution;
+	}
+	
+	/**
+	 * Adds a candidate. Candidates can't be added once they've been ranked.
+	 * @param algorithm The algorithm.
+	 * @param node The node it would work on.
+	 * @param match The algorithm's match for the node's algebra (with smarts greater than 0).
+	 */
+	void add(Algorithm algorithm, Tree node, Algorithm.Match match) {
+		if(ranking != null) throw new IllegalStateException("Candidates have already been ranked.");
+		if(size == this.smarts.length) {
+			this.smarts = Arrays.copyOf(this.smarts, size * 2);
+			this.algorithms = Arrays.copyOf(this.algorithms, size * 2);
+			this.nodes = Arrays.copyOf(this.nodes, size * 2);
+			this.matches = Arrays.copyOf(this.matches, size * 2);
+		}
+		this.smarts[size] = match.getSmarts();
+		this.algorithms[size] = algorithm;
+		this.nodes[size] = node;
+		this.matches[size] = match;
+		size++;
+	}
+	
+	/**
+	 * Ranks the candidates by smarts. Each one is packed into a long with the smarts in the high 
+	 * bits (inverted so the highest comes first) and its index in the low bits, so sorting the longs 
+	 * sorts by smarts and then by the order they were added, without boxing anything.
+	 */
+	private void rank() {
+		long[] keys = new long[size];
+		for(int i = 0; i < size; i++) keys[i] = (long)(Integer.MAX_VALUE - smarts[i]) << 32 | i;
+		Arrays.sort(keys);
+		ranking = new int[size];
+		for(int i = 0; i < size; i++) ranking[i] = (int) keys[i];
+	}
+	
+	/**
+	 * @return The number of candidates.
+	 */
+	int size() {
+		return size;
+	}
+	
+	/**
+	 * @return True if there are candidates that haven't been taken yet.
+	 */
+	boolean hasNext() {
+		return next < size;
+	}
+	
+	/**
+	 * @return The smarts of the next candidate to be taken.
+	 */
+	int peekSmarts() {
+		if(ranking == null) rank();
+		return smarts[ranking[next]];
+	}
+	
+	/**
+	 * Estimates the cost of the partial solution the next candidate would produce, without 
+	 * creating it. The step costs 10 minus its smarts, like every other step, and the complexity 
+	 * of the algebra is assumed not to change.
+	 * @return The estimated cost of the next candidate's partial solution.
+	 */
+	int nextCost() {
+		return cost + 10 - peekSmarts();
+	}
+	
+	/**
+	 * Takes the next candidate, which is the one with the highest smarts of those not yet taken.
+	 * @return The index of the candidate, to pass to {@link #smarts(int)}, {@link #algorithm(int)}, 
+	 * {@link #node(int)}, and {@link #match(int)}.
+	 */
+	int next() {
+		if(ranking == null) rank();
+		return ranking[next++];
+	}
+	
+	/**
+	 * @param i The index of a candidate.
+	 * @return The smarts of the candidate.
+	 */
+	int smarts(int i) {
+		return smarts[i];
+	}
+	
+	/**
+	 * @param i The index of a candidate.
+	 * @return The algorithm of the candidate.
+	 */
+	Algorithm algorithm(int i) {
+		return algorithms[i];
+	}
+	
+	/**
+	 * @param i The index of a candidate.
+	 * @return The node the candidate's algorithm would work on.
+	 */
+	Tree node(int i) {
+		return nodes[i];
+	}
+	
+	/**
+	 * @param i The index of a candidate.
+	 * @return The match of the candidate's algorithm for its node, to pass to 
+	 * {@link Algorithm#execute(Algorithm.Match)}.
+	 */
+	Algorithm.Match match(int i) {
+		return matches[i];
+	}
+	
+}
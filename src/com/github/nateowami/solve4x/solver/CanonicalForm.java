@@ -0,0 +1,175 @@
+/*
+    Solve4x - An algebra solver that shows its work
+    Copyright (C) 2015  Nathaniel Paulus
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.nateowami.solve4x.solver;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Tells when two states of the Solver are the same, ignoring the order of the terms in 
+ * expressions and the order of the factors in terms. For example, 2+x is the same state as x+2, 
+ * and 3xy is the same state as 3yx. This only affects which states the Solver considers to be 
+ * the same; the algebra in each step is left the way the algorithm created it. The two sides of 
+ * an equation are not interchangeable, since x=5 is solved and 5=x is not, and nothing is 
+ * regrouped (2+(3+x) is not the same state as 2+3+x).
+ * @author Nateowami
+ */
+class CanonicalForm {
+	
+	/**
+	 * Calculates a 64-bit fingerprint of the canonical form of the given algebra. Algebra that is 
+	 * equivalent always has the same fingerprint, and algebra that isn't almost never does. The 
+	 * fingerprint is never 0.
+	 * @param a The algebra to fingerprint.
+	 * @return The fingerprint of a.
+	 */
+	static long fingerprint(Algebra a) {
+		long f = hash(a);
+		return f == 0 ? 1 : f;
+	}
+	
+	/**
+	 * Tells if two states are the same, ignoring the order of terms in expressions and factors 
+	 * in terms.
+	 * @param a The first state.
+	 * @param b The second state.
+	 * @return True if a and b are equivalent.
+	 */
+	static boolean equivalent(Algebra a, Algebra b) {
+		if(a == b) return true;
+		if(a.getClass() != b.getClass()) return false;
+		if(a instanceof Equation) {
+			Equation x = (Equation) a, y = (Equation) b;
+			return equivalent(x.left(), y.left()) && equivalent(x.right(), y.right());
+		}
+		
+		AlgebraicParticle x = (AlgebraicParticle) a, y = (AlgebraicParticle) b;
+		if(x.sign() != y.sign() || x.exponent() != y.exponent()) return false;
+		if(x instanceof AlgebraicCollection) {
+			return sameElements((AlgebraicCollection) x, (AlgebraicCollection) y);
+		}
+		else if(x instanceof Fraction) {
+			Fraction f = (Fraction) x, g = (Fraction) y;
+			return equivalent(f.getTop(), g.getTop()) && equivalent(f.getBottom(), g.getBottom());
+		}
+		else if(x instanceof MixedNumber) {
+			MixedNumber m = (MixedNumber) x, n = (MixedNumber) y;
+			return equivalent(m.getNumeral(), n.getNumeral()) && equivalent(m.getFraction(), n.getFraction());
+		}
+		else if(x instanceof Root) {
+			Root r = (Root) x, s = (Root) y;
+			return r.getNthRoot() == s.getNthRoot() && equivalent(r.getExpr(), s.getExpr());
+		}
+		//numbers, variables, and anything else with no children
+		else return x.equals(y);
+	}
+	
+	/**
+	 * Tells if two collections have equivalent elements, in any order.
+	 * @param a The first collection.
+	 * @param b The second collection.
+	 * @return True if every element of a is equivalent to a different element of b.
+	 */
+	private static boolean sameElements(AlgebraicCollection a, AlgebraicCollection b) {
+		if(a.length() != b.length()) return false;
+		boolean[] matched = new boolean[b.length()];
+		outer:
+		for(int i = 0; i < a.length(); i++) {
+			for(int j = 0; j < b.length(); j++) {
+				if(!matched[j] && equivalent(a.get(i), b.get(j))) {
+					matched[j] = true;
+					continue outer;
+				}
+			}
+			return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * Recursively hashes algebra to 64 bits. The elements of a collection are put in order of 
+	 * their hashes before being combined, so the order they were in doesn't matter. Algebra can't 
+	 * change, so the hash is remembered by the algebra itself, and algebra that's shared (see 
+	 * {@link Interner}) is only hashed once.
+	 * @param a The algebra to hash.
+	 * @return The hash of a.
+	 */
+	private static long hash(Algebra a) {
+		long h = a.canonicalHash;
+		if(h == 0) a.canonicalHash = h = compute(a);
+		return h;
+	}
+	
+	/**
+	 * Hashes algebra to 64 bits, using the remembered hash of each of its children.
+	 * @param a The algebra to hash.
+	 * @return The hash of a.
+	 */
+	private static long compute(Algebra a) {
+		if(a instanceof Equation) {
+			return mix(mix(1, hash(((Equation)a).left())), hash(((Equation)a).right()));
+		}
+		
+		AlgebraicParticle p = (AlgebraicParticle) a;
+		long h = mix(p.sign() ? 2 : 3, p.exponent());
+		if(p instanceof AlgebraicCollection) {
+			AlgebraicCollection c = (AlgebraicCollection) p;
+			long[] elements = new long[c.length()];
+			for(int i = 0; i < elements.length; i++) elements[i] = hash(c.get(i));
+			Arrays.sort(elements);
+			h = mix(h, c instanceof Term ? 4 : 5);
+			for(long element : elements) h = mix(h, element);
+		}
+		else if(p instanceof Number) {
+			Number n = (Number) p;
+			BigInteger big = n.bigUnscaled();
+			h = mix(mix(h, 6), big == null ? n.unscaled() : mix(big.longValue(), big.hashCode()));
+			h = mix(mix(h, n.scale()), n.integerDigits());
+			h = mix(h, n.getScientificNotationExponent() == null ? Long.MIN_VALUE : n.getScientificNotationExponent());
+		}
+		else if(p instanceof Variable) {
+			h = mix(mix(h, 7), ((Variable)p).getVar());
+		}
+		else if(p instanceof Fraction) {
+			h = mix(mix(mix(h, 8), hash(((Fraction)p).getTop())), hash(((Fraction)p).getBottom()));
+		}
+		else if(p instanceof MixedNumber) {
+			h = mix(mix(mix(h, 9), hash(((MixedNumber)p).getNumeral())), hash(((MixedNumber)p).getFraction()));
+		}
+		else if(p instanceof Root) {
+			h = mix(mix(mix(h, 10), ((Root)p).getNthRoot()), hash(((Root)p).getExpr()));
+		}
+		else h = mix(mix(h, 11), p.hashCode());
+		return h;
+	}
+	
+	/**
+	 * Combines a hash with another value, scrambling the bits so that small changes in either 
+	 * change the result thoroughly.
+	 * @param h The hash so far.
+	 * @param value The value to add to the hash.
+	 * @return The combined hash.
+	 */
+	private static long mix(long h, long value) {
+		h = (h ^ value) * 0x9E3779B97F4A7C15L;
+		h ^= h >>> 32;
+		h *= 0xBF58476D1CE4E5B9L;
+		return h ^ (h >>> 29);
+	}
+	
+}
@@ -0,0 +1,88 @@
+/*
+    Solve4x - An algebra solver that shows its work
+    Copyright (C) 2015  Nathaniel Paulus
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.nateowami.solve4x.solver;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * A point in time after which the Solver should stop searching and settle for the best partial 
+ * solution it has found. A deadline can be measured in wall-clock time, or in CPU time used by 
+ * the thread that created it (which doesn't count time spent waiting for the processor, but also 
+ * doesn't count time spent by worker threads in a parallel search).
+ * @author Nateowami
+ */
+public class Deadline {
+	
+	//a deadline that never passes
+	public static final Deadline NONE = new Deadline(Long.MAX_VALUE, -1);
+	
+	//when the deadline passes, in nanoseconds
+	private final long end;
+	//the thread whose CPU time is being measured, or -1 for wall-clock time
+	private final long thread;
+	
+	/**
+	 * Constructs a new Deadline.
+	 * @param end When the deadline passes, in nanoseconds, as measured by System.nanoTime() or 
+	 * the CPU time of the given thread.
+	 * @param thread The id of the thread whose CPU time is measured, or -1 for wall-clock time.
+	 */
+	private Deadline(long end, long thread) {
+		this.end = end;
+		this.thread = thread;
+	}
+	
+	/**
+	 * Creates a deadline that passes once the given amount of wall-clock time has elapsed.
+	 * @param millis The number of milliseconds from now the deadline should pass.
+	 * @return A new Deadline.
+	 * @throws IllegalArgumentException If millis is negative.
+	 */
+	public static Deadline after(long millis) {
+		if(millis < 0) throw new IllegalArgumentException("Time limit cannot be negative.");
+		return new Deadline(System.nanoTime() + millis * 1000000, -1);
+	}
+	
+	/**
+	 * Creates a deadline that passes once the current thread has used the given amount of CPU 
+	 * time. If the JVM can't measure CPU time, wall-clock time is used instead.
+	 * @param millis The number of milliseconds of CPU time the current thread may use.
+	 * @return A new Deadline.
+	 * @throws IllegalArgumentException If millis is negative.
+	 */
+	public static Deadline afterCpuTime(long millis) {
+		if(millis < 0) throw new IllegalArgumentException("Time limit cannot be negative.");
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if(!bean.isCurrentThreadCpuTimeSupported() || !bean.isThreadCpuTimeEnabled()) return after(millis);
+		return new Deadline(bean.getCurrentThreadCpuTime() + millis * 1000000, Thread.currentThread().getId());
+	}
+	
+	/**
+	 * Tells if this deadline has passed. May be called from any thread.
+	 * @return True if the deadline has passed.
+	 */
+	public boolean hasPassed() {
+		if(this == NONE) return false;
+		if(thread == -1) return System.nanoTime() - end >= 0;
+		//-1 means the thread has died, in which case there's no point in continuing
+		long time = ManagementFactory.getThreadMXBean().getThreadCpuTime(thread);
+		return time == -1 || time >= end;
+	}
+	
+}
@@ -95,10 +95,14 @@ public class Equation extends Algebra {
 	 */
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = 1;
-		result = prime * result + ((a == null) ? 0 : a.hashCode());
-		result = prime * result + ((b == null) ? 0 : b.hashCode());
+		int result = hash;
+		if(result == 0) {
+			final int prime = 31;
+			result = 1;
+			result = prime * result + ((a == null) ? 0 : a.hashCode());
+			result = prime * result + ((b == null) ? 0 : b.hashCode());
+			hash = result;
+		}
 		return result;
 	}
 	
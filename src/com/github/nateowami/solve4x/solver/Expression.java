@@ -43,8 +43,11 @@ public class Expression extends AlgebraicCollection{
 	}
 	
 	/**
-	 * Construct a new Expression from an array.
-	 * @param array The array of terms for this expression.
+	 * Construct a new Expression from a list.
+	 * @param sign The sign of the expression.
+	 * @param termList The terms of this expression. The list becomes part of the expression, so it 
+	 * must not be changed afterwards.
+	 * @param exponent The exponent of the expression.
 	 */
 	public Expression(boolean sign, ArrayList<AlgebraicParticle> termList, int exponent) {
 		super(sign, exponent);
@@ -120,15 +123,27 @@ public class Expression extends AlgebraicCollection{
 				);
 	}
 	
+	/* (non-Javadoc)
+	 * @see com.github.nateowami.solve4x.solver.AlgebraicParticle#copy(boolean, int)
+	 */
+	@Override
+	protected Expression copy(boolean sign, int exponent) {
+		return new Expression(sign, this.termList, exponent);
+	}
+	
 	/* (non-Javadoc)
 	 * @see java.lang.Object#hashCode()
 	 */
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = super.hashCode();
-		result = prime * result
-				+ ((termList == null) ? 0 : termList.hashCode());
+		int result = hash;
+		if(result == 0) {
+			final int prime = 31;
+			result = super.hashCode();
+			result = prime * result
+					+ ((termList == null) ? 0 : termList.hashCode());
+			hash = result;
+		}
 		return result;
 	}
 	
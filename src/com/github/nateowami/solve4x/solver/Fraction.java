@@ -25,7 +25,7 @@ import com.github.nateowami.solve4x.config.RoundingRule;
  */
 public class Fraction extends AlgebraicParticle{
 	
-	private AlgebraicParticle top, bottom;
+	private final AlgebraicParticle top, bottom;
 	
 	/**
 	 * Constructs a new Fraction.
@@ -191,15 +191,27 @@ public class Fraction extends AlgebraicParticle{
 				);
 	}
 	
+	/* (non-Javadoc)
+	 * @see com.github.nateowami.solve4x.solver.AlgebraicParticle#copy(boolean, int)
+	 */
+	@Override
+	protected Fraction copy(boolean sign, int exponent) {
+		return new Fraction(sign, this.top, this.bottom, exponent);
+	}
+	
 	/* (non-Javadoc)
 	 * @see java.lang.Object#hashCode()
 	 */
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = super.hashCode();
-		result = prime * result + ((bottom == null) ? 0 : bottom.hashCode());
-		result = prime * result + ((top == null) ? 0 : top.hashCode());
+		int result = hash;
+		if(result == 0) {
+			final int prime = 31;
+			result = super.hashCode();
+			result = prime * result + ((bottom == null) ? 0 : bottom.hashCode());
+			result = prime * result + ((top == null) ? 0 : top.hashCode());
+			hash = result;
+		}
 		return result;
 	}
 
@@ -0,0 +1,139 @@
+/*
+    Solve4x - An algebra solver that shows its work
+    Copyright (C) 2015  Nathaniel Paulus
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.nateowami.solve4x.solver;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.WeakHashMap;
+
+/**
+ * Makes sure algebra that's equal is the same instance (this is known as hash-consing). Interning 
+ * a piece of algebra returns the instance that stands for all algebra equal to it, and interns 
+ * its children along the way, so equal algebra ends up sharing all of its structure. Comparing 
+ * interned algebra can then usually stop as soon as it finds it's comparing an instance with 
+ * itself, and anything remembered about an instance (such as its {@link Algebra#nodeCount()}, 
+ * or the smarts remembered by a search) is shared by all algebra equal to it.
+ * 
+ * Algebra can't change once it's been built, so any algebra may be interned, but only once 
+ * nothing will be done to build it any further (for example, a list passed to 
+ * {@link Term#Term(boolean, ArrayList, int)} must not be changed after the term is interned). 
+ * Interned algebra that is no longer used anywhere else is forgotten, so interning can't run 
+ * out of memory. The Interner may be used by several threads at once.
+ * @author Nateowami
+ */
+public final class Interner {
+	
+	//the number of parts the pool is split into (a power of two), so threads interning different 
+	//algebra rarely wait for each other
+	private static final int STRIPES = 32;
+	//the interned instance of each piece of algebra, held weakly so it can be forgotten, split up by hash code
+	private static final Stripe[] POOL = new Stripe[STRIPES];
+	static {
+		for(int i = 0; i < STRIPES; i++) POOL[i] = new Stripe();
+	}
+	
+	private Interner() {}
+	
+	/**
+	 * Returns the interned instance of algebra, interning it (and its children) if nothing equal 
+	 * to it has been interned yet.
+	 * @param algebra The algebra to intern (may be null).
+	 * @return The instance that's equal to algebra and that all algebra equal to it is interned 
+	 * as, or null if algebra is null.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T extends Algebra> T intern(T algebra) {
+		if(algebra == null) return null;
+		Algebra interned = stripe(algebra).get(algebra);
+		if(interned != null) return (T) interned;
+		
+		//share the children as well, rebuilding the algebra around them if any weren't interned yet
+		Algebra shared = algebra;
+		ArrayList<AlgebraicParticle> children = Tree.children(algebra);
+		if(children != null) {
+			for(int i = 0; i < children.size(); i++) {
+				AlgebraicParticle child = children.get(i);
+				AlgebraicParticle internedChild = intern(child);
+				if(internedChild != child) shared = Tree.withChild(shared, i, internedChild);
+			}
+		}
+		return (T) stripe(shared).putIfAbsent(shared);
+	}
+	
+	/**
+	 * @return The number of pieces of algebra that are interned, including any that are no longer 
+	 * used but haven't been forgotten yet.
+	 */
+	static int size() {
+		int size = 0;
+		for(Stripe stripe : POOL) size += stripe.size();
+		return size;
+	}
+	
+	/**
+	 * @param algebra A piece of algebra.
+	 * @return The part of the pool that algebra belongs in.
+	 */
+	private static Stripe stripe(Algebra algebra) {
+		int h = algebra.hashCode();
+		//spread the higher bits down, since only the lowest ones pick the stripe
+		h ^= (h >>> 20) ^ (h >>> 12);
+		h ^= (h >>> 7) ^ (h >>> 4);
+		return POOL[h & (STRIPES - 1)];
+	}
+	
+	/**
+	 * One part of the pool, with its own lock.
+	 */
+	private static final class Stripe {
+		
+		private final WeakHashMap<Algebra, WeakReference<Algebra>> map = new WeakHashMap<Algebra, WeakReference<Algebra>>();
+		
+		/**
+		 * Finds the interned instance of algebra.
+		 * @param algebra The algebra to look for.
+		 * @return The interned instance, or null if nothing equal to algebra is interned.
+		 */
+		private synchronized Algebra get(Algebra algebra) {
+			WeakReference<Algebra> ref = map.get(algebra);
+			return ref == null ? null : ref.get();
+		}
+		
+		/**
+		 * Interns algebra, unless something equal to it is already interned (another thread may 
+		 * have interned it in the meantime).
+		 * @param algebra The algebra to intern, whose children must already be interned.
+		 * @return The interned instance.
+		 */
+		private synchronized Algebra putIfAbsent(Algebra algebra) {
+			Algebra interned = get(algebra);
+			if(interned != null) return interned;
+			map.put(algebra, new WeakReference<Algebra>(algebra));
+			return algebra;
+		}
+		
+		/**
+		 * @return The number of pieces of algebra in this part of the pool.
+		 */
+		private synchronized int size() {
+			return map.size();
+		}
+		
+	}
+	
+}
@@ -25,8 +25,8 @@ import com.github.nateowami.solve4x.config.RoundingRule;
  */
 public class MixedNumber extends AlgebraicParticle{
 	
-	private Number numeral;
-	private Fraction fraction;
+	private final Number numeral;
+	private final Fraction fraction;
 	
 	/**
 	 * Constructs a new Mixed Number
@@ -34,7 +34,7 @@ public class MixedNumber extends AlgebraicParticle{
 	 */
 	protected MixedNumber(String frac) {
 		//set the integer part
-		this.numeral = new Number(frac.substring(0, frac.indexOf('(')));
+		this.numeral = Number.valueOf(frac.substring(0, frac.indexOf('(')));
 		this.fraction = new Fraction(frac.substring(frac.indexOf('(')));
 	}
 	
@@ -130,16 +130,28 @@ public class MixedNumber extends AlgebraicParticle{
 				);
 	}
 	
+	/* (non-Javadoc)
+	 * @see com.github.nateowami.solve4x.solver.AlgebraicParticle#copy(boolean, int)
+	 */
+	@Override
+	protected MixedNumber copy(boolean sign, int exponent) {
+		return new MixedNumber(sign, this.numeral, this.fraction, exponent);
+	}
+	
 	/* (non-Javadoc)
 	 * @see java.lang.Object#hashCode()
 	 */
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = super.hashCode();
-		result = prime * result
-				+ ((fraction == null) ? 0 : fraction.hashCode());
-		result = prime * result + ((numeral == null) ? 0 : numeral.hashCode());
+		int result = hash;
+		if(result == 0) {
+			final int prime = 31;
+			result = super.hashCode();
+			result = prime * result
+					+ ((fraction == null) ? 0 : fraction.hashCode());
+			result = prime * result + ((numeral == null) ? 0 : numeral.hashCode());
+			hash = result;
+		}
 		return result;
 	}
 	
@@ -18,6 +18,7 @@
 package com.github.nateowami.solve4x.solver;
 
 import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.math.MathContext;
 import java.math.RoundingMode;
 
@@ -26,38 +27,41 @@ import com.github.nateowami.solve4x.config.RoundingRule;
 /**
  * Represents a integer or decimal such as 35, 45.25, 56.36, 3.1415926535, 2.4*10⁴ and 
  * provides methods for adding, subtracting, multiplying, and dividing numbers.
+ * 
+ * A number is written as its digits, with a decimal point somewhere among them (every digit 
+ * written counts, so 2.50 is not the same number as 2.5). Rather than keeping the digits as 
+ * text, the number keeps their value (in a long, unless it's too big), how many of them come 
+ * after the decimal point, and how many come before it (leading zeros count), so arithmetic 
+ * doesn't need to deal with text. The digits are only written out when they're asked for.
  * @author Nateowami
  */
 public class Number extends AlgebraicParticle{
 	
-	//The numerical part of a mixed number (could be a decimal)
-	private String integer, decimal;
+	//the most digits that are sure to fit in a long
+	private static final int LONG_DIGITS = 18;
+	//the largest integer (in either sign) that valueOf() returns a cached instance for
+	private static final int MAX_CACHED = 1024;
+	
+	//the value of all the digits of the number, ignoring the decimal point, if it fits in a long
+	private final long unscaled;
+	//the value of all the digits of the number if it doesn't fit in a long (null if it does)
+	private final BigInteger bigUnscaled;
+	//the number of digits after the decimal point
+	private final int scale;
+	//the number of digits before the decimal point (0 if it has no integer part)
+	private final int integerDigits;
 	//the exponent of 10, if this is scientific notation, e.g., in 2.3*10⁴ this would be 4
-	private Integer sciExponent = null;
-	public static final Number ZERO = new Number("0"), ONE = new Number("1"), NEGATIVE_ONE = new Number(false, "1", null, null, 1);
+	private final Integer sciExponent;
+	//the canonical instances of the small integers, indexed by their absolute value
+	private static final Number[] POSITIVE = cache(true), NEGATIVE = cache(false);
+	public static final Number ZERO = valueOf(0), ONE = valueOf(1), NEGATIVE_ONE = valueOf(-1);
 	
 	/**
 	 * Constructs a new number.
-	 * @param num The number to parse into a Number. Examples: 2.67, 15, 0.34, 3.1415
+	 * @param num The number to parse into a Number. Examples: 2.67, 15, 0.34, 3.1415, -8.5
 	 */
 	public Number(String num) {
-		//check for scientific notation
-		int a = num.indexOf("*10");
-		if(a != -1){
-			sciExponent = Util.superscriptToInt(num.substring(a+3));
-			//remove the *10⁸ part, or whatever it happens to be
-			num = num.substring(0, a);
-		}
-
-		int i = num.indexOf('.');
-		if(i == -1){
-			this.integer = num;
-		}
-		else {
-			String integ = num.substring(0, i), dec = num.substring(i+1);
-			if(integ.length() != 0) this.integer = integ;
-			if(dec.length() != 0) this.decimal = dec;
-		}
+		this(!num.startsWith("-"), integerPart(num), decimalPart(num), sciExponent(num), 1);
 	}
 	
 	/**
@@ -67,12 +71,217 @@ public class Number extends AlgebraicParticle{
 	 * @param decimal The part of the number after the decimal point (may be null or empty).
 	 * @param sciExponent The exponent of 10 if this number is in scientific notation (may be null).
 	 * @param exponent The exponent of the number.
+	 * @throws NumberFormatException If integer or decimal contains anything other than numerals.
+	 */
+	public Number(boolean sign, String integer, String decimal, Integer sciExponent, int exponent) throws NumberFormatException {
+		super(sign, exponent);
+		this.integerDigits = integer == null ? 0 : integer.length();
+		this.scale = decimal == null ? 0 : decimal.length();
+		this.sciExponent = sciExponent;
+		if(integerDigits + scale <= LONG_DIGITS) {
+			this.unscaled = parseDigits(parseDigits(0, integer), decimal);
+			this.bigUnscaled = null;
+		}
+		else {
+			BigInteger digits = new BigInteger((integer == null ? "" : integer) + (decimal == null ? "" : decimal));
+			if(digits.signum() == -1) throw new NumberFormatException("Not a number: " + integer + "." + decimal);
+			this.unscaled = digits.bitLength() < 64 ? digits.longValue() : 0;
+			this.bigUnscaled = digits.bitLength() < 64 ? null : digits;
+		}
+	}
+	
+	/**
+	 * Constructs a new Number from the value of its digits.
+	 * @param sign The sign of the number.
+	 * @param unscaled The value of the digits of the number, ignoring the decimal point (must not 
+	 * be negative).
+	 * @param scale The number of digits after the decimal point.
+	 * @param integerDigits The number of digits before the decimal point.
+	 * @param sciExponent The exponent of 10 if this number is in scientific notation (may be null).
+	 * @param exponent The exponent of the number.
+	 */
+	private Number(boolean sign, BigInteger unscaled, int scale, int integerDigits, Integer sciExponent, int exponent) {
+		super(sign, exponent);
+		this.unscaled = unscaled.bitLength() < 64 ? unscaled.longValue() : 0;
+		this.bigUnscaled = unscaled.bitLength() < 64 ? null : unscaled;
+		this.scale = scale;
+		this.integerDigits = integerDigits;
+		this.sciExponent = sciExponent;
+	}
+	
+	/**
+	 * Constructs a new Number from the value of its digits, when it fits in a long.
+	 * @param sign The sign of the number.
+	 * @param unscaled The value of the digits of the number, ignoring the decimal point (must not 
+	 * be negative).
+	 * @param scale The number of digits after the decimal point.
+	 * @param integerDigits The number of digits before the decimal point.
+	 * @param sciExponent The exponent of 10 if this number is in scientific notation (may be null).
+	 * @param exponent The exponent of the number.
 	 */
-	public Number(boolean sign, String integer, String decimal, Integer sciExponent, int exponent){
+	private Number(boolean sign, long unscaled, int scale, int integerDigits, Integer sciExponent, int exponent) {
 		super(sign, exponent);
-		if(integer != null && !integer.isEmpty()) this.integer = integer;
-		if(decimal != null && !decimal.isEmpty()) this.decimal = decimal;
-		this.sciExponent = sciExponent; 
+		this.unscaled = unscaled;
+		this.bigUnscaled = null;
+		this.scale = scale;
+		this.integerDigits = integerDigits;
+		this.sciExponent = sciExponent;
+	}
+	
+	/**
+	 * Constructs a copy of a Number with a new sign and exponent.
+	 * @param n The number to copy.
+	 * @param sign The sign of the copy.
+	 * @param exponent The exponent of the copy.
+	 */
+	private Number(Number n, boolean sign, int exponent) {
+		super(sign, exponent);
+		this.unscaled = n.unscaled;
+		this.bigUnscaled = n.bigUnscaled;
+		this.scale = n.scale;
+		this.integerDigits = n.integerDigits;
+		this.sciExponent = n.sciExponent;
+	}
+	
+	/**
+	 * Returns a Number with the value of an integer. Integers from -{@value #MAX_CACHED} to 
+	 * {@value #MAX_CACHED} always return the same (interned) instance, so they don't need to be 
+	 * created again every time they come up.
+	 * @param value The value of the number.
+	 * @return A positive or negative integer Number with the given value and an exponent of 1.
+	 */
+	public static Number valueOf(long value) {
+		if(value >= -MAX_CACHED && value <= MAX_CACHED) return value < 0 ? NEGATIVE[(int) -value] : POSITIVE[(int) value];
+		//the only long whose absolute value doesn't fit in a long
+		if(value == Long.MIN_VALUE) return new Number(false, BigInteger.valueOf(value).negate(), 0, 19, null, 1);
+		long unscaled = Math.abs(value);
+		return new Number(value >= 0, unscaled, 0, digitCount(unscaled), null, 1);
+	}
+	
+	/**
+	 * Parses a number, returning the cached instance (see {@link #valueOf(long)}) if it's one of 
+	 * the integers that are cached.
+	 * @param num The number to parse, as accepted by {@link #Number(String)}.
+	 * @return The number.
+	 * @throws NumberFormatException If num isn't a number.
+	 */
+	public static Number valueOf(String num) throws NumberFormatException {
+		String integer = integerPart(num);
+		if(integer != null && integer.length() <= LONG_DIGITS && decimalPart(num) == null && sciExponent(num) == null) {
+			Number cached = cached(!num.startsWith("-"), parseDigits(0, integer), 0, integer.length(), null, 1);
+			if(cached != null) return cached;
+		}
+		return new Number(num);
+	}
+	
+	/**
+	 * Creates the canonical instances of the integers from 0 to {@value #MAX_CACHED}.
+	 * @param sign The sign of the integers.
+	 * @return The integers, indexed by their absolute value.
+	 */
+	private static Number[] cache(boolean sign) {
+		Number[] cache = new Number[MAX_CACHED + 1];
+		for(int i = 0; i < cache.length; i++) {
+			cache[i] = Interner.intern(new Number(sign, i, 0, digitCount(i), null, 1));
+		}
+		return cache;
+	}
+	
+	/**
+	 * Returns the canonical instance of a number, if it has one.
+	 * @param sign The sign of the number.
+	 * @param unscaled The value of the digits of the number.
+	 * @param scale The number of digits after the decimal point.
+	 * @param integerDigits The number of digits before the decimal point.
+	 * @param sciExponent The exponent of 10 if the number is in scientific notation (may be null).
+	 * @param exponent The exponent of the number.
+	 * @return The cached instance, or null if the number is not a small integer written without 
+	 * leading zeros and with an exponent of 1.
+	 */
+	private static Number cached(boolean sign, long unscaled, int scale, int integerDigits, Integer sciExponent, int exponent) {
+		if(exponent != 1 || scale != 0 || sciExponent != null || unscaled > MAX_CACHED || integerDigits != digitCount(unscaled)) return null;
+		return sign ? POSITIVE[(int) unscaled] : NEGATIVE[(int) unscaled];
+	}
+	
+	/**
+	 * @param value A value that's not negative.
+	 * @return The number of digits needed to write value (1 for 0).
+	 */
+	private static int digitCount(long value) {
+		int digits = 1;
+		while(value >= 10) {
+			value /= 10;
+			digits++;
+		}
+		return digits;
+	}
+	
+	/**
+	 * @param num A number, as accepted by {@link #Number(String)}.
+	 * @return The part of num before the decimal point (null if there is none).
+	 */
+	private static String integerPart(String num) {
+		num = withoutSciExponent(num.startsWith("-") ? num.substring(1) : num);
+		int i = num.indexOf('.');
+		String integer = i == -1 ? num : num.substring(0, i);
+		return integer.isEmpty() ? null : integer;
+	}
+	
+	/**
+	 * @param num A number, as accepted by {@link #Number(String)}.
+	 * @return The part of num after the decimal point (null if there is none).
+	 */
+	private static String decimalPart(String num) {
+		num = withoutSciExponent(num);
+		int i = num.indexOf('.');
+		return i == -1 || i == num.length() - 1 ? null : num.substring(i+1);
+	}
+	
+	/**
+	 * @param num A number, as accepted by {@link #Number(String)}.
+	 * @return The exponent of 10 if num is in scientific notation, otherwise null.
+	 */
+	private static Integer sciExponent(String num) {
+		int a = num.indexOf("*10");
+		return a == -1 ? null : Util.superscriptToInt(num.substring(a+3));
+	}
+	
+	/**
+	 * @param num A number, as accepted by {@link #Number(String)}.
+	 * @return num without the *10⁸ part (or whatever it happens to be), if it has one.
+	 */
+	private static String withoutSciExponent(String num) {
+		int a = num.indexOf("*10");
+		return a == -1 ? num : num.substring(0, a);
+	}
+	
+	/**
+	 * Appends numerals to the digits of a number.
+	 * @param value The value of the digits so far.
+	 * @param numerals The numerals to append (may be null).
+	 * @return The value of the digits with the numerals appended.
+	 * @throws NumberFormatException If numerals contains anything other than numerals.
+	 */
+	private static long parseDigits(long value, String numerals) throws NumberFormatException {
+		if(numerals == null) return value;
+		for(int i = 0; i < numerals.length(); i++) {
+			int digit = numerals.charAt(i) - '0';
+			if(digit < 0 || digit > 9) throw new NumberFormatException("Not a numeral: " + numerals.charAt(i));
+			value = value * 10 + digit;
+		}
+		return value;
+	}
+	
+	/**
+	 * @return All the digits of this number, ignoring the decimal point (with leading zeros).
+	 */
+	private String digits() {
+		String digits = bigUnscaled == null ? Long.toString(unscaled) : bigUnscaled.toString();
+		int length = integerDigits + scale;
+		if(digits.length() >= length) return digits;
+		StringBuilder padded = new StringBuilder(length);
+		for(int i = digits.length(); i < length; i++) padded.append('0');
+		return padded.append(digits).toString();
 	}
 	
 	 /**
@@ -82,30 +291,35 @@ public class Number extends AlgebraicParticle{
 	protected BigDecimal toBigDecimal() {
 		if(this.exponent() != 1) throw new IllegalArgumentException("Connot a number with an exponent to BigDecimal.");
 		
-		return new BigDecimal(
-				(sign() ? "" : "-") + integer + (decimal == null ? "" : "." + decimal) + (sciExponent == null ? "" : "e" + sciExponent)
-			);
+		int scale = sciExponent == null ? this.scale : this.scale - sciExponent;
+		if(bigUnscaled == null) return BigDecimal.valueOf(sign() ? unscaled : -unscaled, scale);
+		return new BigDecimal(sign() ? bigUnscaled : bigUnscaled.negate(), scale);
 	}
 	
 	/**
-	 * Converts bd to Number.
+	 * Converts bd to Number. The number is written the way {@link BigDecimal#toString()} would 
+	 * write bd: in full, unless it would need more than six zeros after the decimal point, or it 
+	 * has fewer digits than its value calls for, in which case it's written in scientific notation 
+	 * with a single digit before the decimal point.
 	 * @param bd A BigDecimal to be converted to Number.
 	 * @return bd, converted to Number.
 	 */
 	protected static Number toNumber(BigDecimal bd){
-		String s = bd.toString();
-		int dot = s.indexOf('.'), e = s.indexOf('E', dot+1);
-		//change e to the end if there is no exponent
-		if(e == -1) e = s.length();
-		//change dot to e if there is no dot
-		if(dot == -1) dot = e;
-		String integer = s.substring(bd.signum() == -1 ? 1 : 0, dot);
-		String decimal = dot >= e ? null : s.substring(dot+1, e);
-		Integer sciExponent = null;
-		//+2 takes care of the 'e' and sign characters, e.g. "e+3"; multiplying by -1 accounts for the sign
-		if(e < s.length()) sciExponent = new Integer(s.substring(e+2)) * (s.charAt(e+1) == '-' ? -1 : 1);
-		//set the sign for the sciExponent
-		return new Number(bd.signum() == -1 ? false : true, integer, decimal, sciExponent, 1);
+		boolean sign = bd.signum() != -1;
+		BigInteger unscaled = bd.unscaledValue().abs();
+		int digits = bd.precision(), scale = bd.scale();
+		//the exponent the number would have in scientific notation
+		long adjusted = -(long) scale + (digits - 1);
+		if(scale >= 0 && adjusted >= -6) {
+			//if there's no integer part, the number is written with a zero before the decimal point
+			int integerDigits = Math.max(digits - scale, 1);
+			if(unscaled.bitLength() < 64) {
+				Number cached = cached(sign, unscaled.longValue(), scale, integerDigits, null, 1);
+				if(cached != null) return cached;
+			}
+			return new Number(sign, unscaled, scale, integerDigits, null, 1);
+		}
+		return new Number(sign, unscaled, digits - 1, 1, (int) adjusted, 1);
 	}	
 	
 	/**
@@ -191,8 +405,9 @@ public class Number extends AlgebraicParticle{
 	 * @return This Number in a string format. 
 	 */
 	public String render(){
+		String decimal = getDecimal();
 		return wrapWithSignParAndExponent(
-				integer + (decimal == null ? "" : "." + decimal) + 
+				getInteger() + (decimal == null ? "" : "." + decimal) + 
 						(sciExponent == null ? "" : "*10" + Util.toSuperscript(Integer.toString(sciExponent))),
 				false);
 	}
@@ -201,7 +416,7 @@ public class Number extends AlgebraicParticle{
 	 * @return true if the Number is equal to zero, otherwise false.
 	 */
 	public boolean isZero(){
-		return this.decimal == null && this.integer.equals("0");
+		return scale == 0 && integerDigits == 1 && unscaled == 0 && bigUnscaled == null;
 	}
 	
 	/**
@@ -247,12 +462,16 @@ public class Number extends AlgebraicParticle{
 	@Override
 	public Number cloneWithNewSign(boolean sign){
 		if(this.sign() == sign) return this;
-		return new Number(sign, 
-				this.integer, 
-				this.decimal, 
-				this.sciExponent,
-				this.exponent()
-				);
+		return copy(sign, this.exponent());
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.github.nateowami.solve4x.solver.AlgebraicParticle#copy(boolean, int)
+	 */
+	@Override
+	protected Number copy(boolean sign, int exponent) {
+		Number cached = bigUnscaled == null ? cached(sign, unscaled, scale, integerDigits, sciExponent, exponent) : null;
+		return cached != null ? cached : new Number(this, sign, exponent);
 	}
 	
 	/* (non-Javadoc)
@@ -260,23 +479,55 @@ public class Number extends AlgebraicParticle{
 	 */
 	@Override
 	public String toString() {
-		return "Number [integer=" + integer + ", decimal=" + decimal
+		return "Number [integer=" + getInteger() + ", decimal=" + getDecimal()
 				+ ", sciExponent=" + sciExponent + ", sign()=" + sign()
 				+ ", exponent()=" + exponent() + "]";
 	}
 	
+	/**
+	 * @return The value of all the digits of this number, ignoring the decimal point, if it fits 
+	 * in a long (otherwise see {@link #bigUnscaled()}).
+	 */
+	long unscaled() {
+		return unscaled;
+	}
+	
+	/**
+	 * @return The value of all the digits of this number, ignoring the decimal point, if it doesn't 
+	 * fit in a long, otherwise null.
+	 */
+	BigInteger bigUnscaled() {
+		return bigUnscaled;
+	}
+	
+	/**
+	 * @return The number of digits after the decimal point.
+	 */
+	int scale() {
+		return scale;
+	}
+	
+	/**
+	 * @return The number of digits before the decimal point (leading zeros count).
+	 */
+	int integerDigits() {
+		return integerDigits;
+	}
+	
 	/**
 	 * @return The integer part (the part from before the decimal)
 	 */
 	public String getInteger() {
-		return integer;
+		return integerDigits == 0 ? null : digits().substring(0, integerDigits);
 	}
 	
 	/**
 	 * @return The decimal part (the part after the decimal point)
 	 */
 	public String getDecimal() {
-		return decimal;
+		if(scale == 0) return null;
+		String digits = digits();
+		return digits.substring(digits.length() - scale);
 	}
 	
 	/**
@@ -285,7 +536,7 @@ public class Number extends AlgebraicParticle{
 	 * @return True if this number is an integer, otherwise false.
 	 */
 	public boolean isInteger() {
-		return this.decimal == null && this.sciExponent == null;
+		return this.scale == 0 && this.sciExponent == null;
 	}
 	
 	/**
@@ -301,7 +552,7 @@ public class Number extends AlgebraicParticle{
 	 * @return The number of significant figures in this number (sum of integer length and decimal length).
 	 */
 	public int sigFigs(){
-		return (this.integer == null ? 0 : this.integer.length()) + (this.decimal == null ? 0 : this.decimal.length());
+		return this.integerDigits + this.scale;
 	}
 	
 	/**
@@ -346,8 +597,10 @@ public class Number extends AlgebraicParticle{
 	public int hashCode() {
 		final int prime = 31;
 		int result = super.hashCode();
-		result = prime * result + ((decimal == null) ? 0 : decimal.hashCode());
-		result = prime * result + ((integer == null) ? 0 : integer.hashCode());
+		result = prime * result + (int) (unscaled ^ (unscaled >>> 32));
+		result = prime * result + ((bigUnscaled == null) ? 0 : bigUnscaled.hashCode());
+		result = prime * result + scale;
+		result = prime * result + integerDigits;
 		result = prime * result
 				+ ((sciExponent == null) ? 0 : sciExponent.hashCode());
 		return result;
@@ -367,15 +620,16 @@ public class Number extends AlgebraicParticle{
 		if (getClass() != obj.getClass())
 			return false;
 		Number other = (Number) obj;
-		if (decimal == null) {
-			if (other.decimal != null)
-				return false;
-		} else if (!decimal.equals(other.decimal))
+		if (unscaled != other.unscaled)
 			return false;
-		if (integer == null) {
-			if (other.integer != null)
+		if (bigUnscaled == null) {
+			if (other.bigUnscaled != null)
 				return false;
-		} else if (!integer.equals(other.integer))
+		} else if (!bigUnscaled.equals(other.bigUnscaled))
+			return false;
+		if (scale != other.scale)
+			return false;
+		if (integerDigits != other.integerDigits)
 			return false;
 		if (sciExponent == null) {
 			if (other.sciExponent != null)
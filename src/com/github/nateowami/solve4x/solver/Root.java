@@ -155,16 +155,28 @@ public class Root extends AlgebraicParticle{
 				this.exponent()
 				);
 	}
+	
+	/* (non-Javadoc)
+	 * @see com.github.nateowami.solve4x.solver.AlgebraicParticle#copy(boolean, int)
+	 */
+	@Override
+	protected Root copy(boolean sign, int exponent) {
+		return new Root(sign, this.nthRoot, this.expr, exponent);
+	}
 
 	/* (non-Javadoc)
 	 * @see java.lang.Object#hashCode()
 	 */
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = super.hashCode();
-		result = prime * result + ((expr == null) ? 0 : expr.hashCode());
-		result = prime * result + nthRoot;
+		int result = hash;
+		if(result == 0) {
+			final int prime = 31;
+			result = super.hashCode();
+			result = prime * result + ((expr == null) ? 0 : expr.hashCode());
+			result = prime * result + nthRoot;
+			hash = result;
+		}
 		return result;
 	}
 	
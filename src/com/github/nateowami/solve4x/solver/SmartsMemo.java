@@ -0,0 +1,127 @@
+/*
+    Solve4x - An algebra solver that shows its work
+    Copyright (C) 2015  Nathaniel Paulus
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.nateowami.solve4x.solver;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers the matches of algorithms for pieces of algebra (their smarts, and the analysis behind 
+ * them; see {@link Algorithm#match(Algebra)}), so the smarts for a piece of algebra that appears 
+ * in many states only need to be worked out once. Trees derived from one another 
+ * share the algebra of everything that didn't change (see {@link Tree#replacement(Algebra)}), and 
+ * the algebra in trees is interned (see {@link Interner}), so the algebra is looked up by 
+ * identity, which is much cheaper than comparing it. Equal algebra may well be one shared 
+ * instance (including the cached numbers and variables), which is fine, since a match only 
+ * depends on the algebra, never on where it is. Only a limited number of results are kept; 
+ * when the memo is full, the least recently used result is forgotten.
+ * 
+ * A SmartsMemo may be used by several threads at once.
+ * @author Nateowami
+ */
+class SmartsMemo {
+	
+	//the number of results kept if no limit is given
+	static final int DEFAULT_CAPACITY = 1 << 14;
+	
+	//the match for each algorithm and algebra, with the least recently used first
+	private final LinkedHashMap<Key, Algorithm.Match> memo;
+	
+	/**
+	 * Creates a new SmartsMemo that keeps up to {@link #DEFAULT_CAPACITY} results.
+	 */
+	SmartsMemo() {
+		this(DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * Creates a new SmartsMemo.
+	 * @param capacity The number of results to keep (must be at least 1).
+	 * @throws IllegalArgumentException If capacity is less than 1.
+	 */
+	SmartsMemo(final int capacity) {
+		if(capacity < 1) throw new IllegalArgumentException("Capacity must be at least 1, but was " + capacity);
+		this.memo = new LinkedHashMap<Key, Algorithm.Match>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Algorithm.Match> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+	
+	/**
+	 * Finds the match of an algorithm for a piece of algebra, remembered from an earlier call.
+	 * @param algorithm The algorithm.
+	 * @param algebra The algebra.
+	 * @return The match, or null if it isn't remembered.
+	 */
+	synchronized Algorithm.Match get(Algorithm algorithm, Algebra algebra) {
+		return memo.get(new Key(algorithm, algebra));
+	}
+	
+	/**
+	 * Remembers the match of an algorithm for a piece of algebra.
+	 * @param algorithm The algorithm.
+	 * @param match The match of the algorithm for the match's algebra.
+	 */
+	synchronized void put(Algorithm algorithm, Algorithm.Match match) {
+		memo.put(new Key(algorithm, match.getAlgebra()), match);
+	}
+	
+	/**
+	 * @return The number of results remembered.
+	 */
+	synchronized int size() {
+		return memo.size();
+	}
+	
+	/**
+	 * An algorithm and a piece of algebra, compared by identity.
+	 */
+	private static final class Key {
+		
+		private final Algorithm algorithm;
+		private final Algebra algebra;
+		
+		private Key(Algorithm algorithm, Algebra algebra) {
+			this.algorithm = algorithm;
+			this.algebra = algebra;
+		}
+		
+		/* (non-Javadoc)
+		 * @see java.lang.Object#hashCode()
+		 */
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(algorithm) + System.identityHashCode(algebra);
+		}
+		
+		/* (non-Javadoc)
+		 * @see java.lang.Object#equals(java.lang.Object)
+		 */
+		@Override
+		public boolean equals(Object obj) {
+			if(!(obj instanceof Key)) return false;
+			Key other = (Key) obj;
+			return algorithm == other.algorithm && algebra == other.algebra;
+		}
+		
+	}
+	
+}
@@ -17,19 +17,33 @@
  */
 package com.github.nateowami.solve4x.solver;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * Represents a solution for a given equation or expression by 
- * holding a Step ArrayList.
+ * holding a chain of Steps. Solutions copied from one another share the steps they have in 
+ * common, so copying a Solution doesn't copy its steps. Only the solver can add steps or set the 
+ * summary, so a Solution that has been handed out can't be changed, and may be shared (see 
+ * {@link SolutionCache}).
  * @author Nateowami
  */
 public class Solution {
 	
-	private ArrayList <Step>steps = new ArrayList<Step>();//a list of steps
+	//the last step, which links back to the ones before it (null if there are no steps)
+	private Link last;
+	//the steps as an array, created when first needed by get(int) (null until then)
+	private volatile Step[] steps;
 	private Algebra original;
 	private String summary;
 	private boolean summaryLast = true;
+	//whether solving stopped because it ran out of time
+	private boolean timedOut = false;
+	//the sum of the smarts of the algorithms that produced each step
+	private int smarts;
+	//the tree of the last algebraic expression, created when first needed (null until then)
+	private volatile Tree tree;
+	//the fingerprint of the last algebraic expression, worked out when first needed (0 until then)
+	private volatile long fingerprint;
 	
 	/**
 	 * Creates a new Solution from another Solution
@@ -37,7 +51,11 @@ public class Solution {
 	 */
 	public Solution(Solution solution){
 		this.original = solution.original;
-		this.steps.addAll(solution.getList());
+		//the chain can't change, so it's safe to share
+		this.last = solution.last;
+		this.smarts = solution.smarts;
+		this.tree = solution.tree;
+		this.fingerprint = solution.fingerprint;
 	}
 	
 	/**
@@ -49,19 +67,46 @@ public class Solution {
 	}
 	
 	/**
-	 * Gets the list of steps for solving
-	 * @return The list of steps for solving
+	 * Gets the steps for solving, in order.
+	 * @return The steps for solving (must not be modified)
 	 */
-	private ArrayList<Step> getList() {
-		return this.steps;
+	private Step[] getArray() {
+		Step[] array = this.steps;
+		if(array == null) {
+			array = new Step[length()];
+			for(Link link = this.last; link != null; link = link.previous) array[link.length - 1] = link.step;
+			this.steps = array;
+		}
+		return array;
 	}
 	
 	/**
 	 * Adds a Step to the current Solution
 	 * @param step
 	 */
-	public void addStep(Step step) {
-		this.steps.add(step);
+	void addStep(Step step) {
+		this.last = new Link(this.last, step);
+		this.steps = null;
+		this.tree = null;
+		this.fingerprint = 0;
+	}
+	
+	/**
+	 * Adds a Step to the current Solution, and adds the smarts of the algorithm that produced it 
+	 * to the total smarts of this Solution.
+	 * @param step The step to add.
+	 * @param smarts The smarts of the algorithm that produced the step.
+	 */
+	void addStep(Step step, int smarts) {
+		addStep(step);
+		this.smarts += smarts;
+	}
+	
+	/**
+	 * @return The sum of the smarts of the algorithms that produced each step in this Solution.
+	 */
+	public int getSmarts() {
+		return this.smarts;
 	}
 	
 	/**
@@ -69,7 +114,7 @@ public class Solution {
 	 * @return The current number of steps
 	 */
 	public int length(){
-		return this.steps.size();
+		return this.last == null ? 0 : this.last.length;
 	}
 	
 	/**
@@ -78,7 +123,8 @@ public class Solution {
 	 * @return The Step specified
 	 */
 	public Step get(int index){
-		return this.steps.get(index);
+		if(index < 0 || index >= length()) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + length());
+		return getArray()[index];
 	}
 	
 	/**
@@ -87,7 +133,35 @@ public class Solution {
 	 * no solving steps have occurred.
 	 */
 	public Algebra getLastAlgebraicExpression(){
-		return this.steps.size() > 0 ? this.steps.get(this.steps.size() - 1).getAlgebraicExpression() : this.original;
+		return this.last != null ? this.last.step.getAlgebraicExpression() : this.original;
+	}
+	
+	/**
+	 * @return A tree of the last algebraic expression (see {@link #getLastAlgebraicExpression()}).
+	 */
+	Tree tree() {
+		Tree tree = this.tree;
+		if(tree == null) this.tree = tree = new Tree(getLastAlgebraicExpression());
+		return tree;
+	}
+	
+	/**
+	 * Sets the tree of the last algebraic expression, so that a tree derived from the tree of the 
+	 * previous step can be used instead of building a new one.
+	 * @param tree A tree of the last algebraic expression.
+	 */
+	void setTree(Tree tree) {
+		this.tree = tree;
+	}
+	
+	/**
+	 * @return The fingerprint of the last algebraic expression (see {@link StateTable#fingerprint(Algebra)}), 
+	 * which is only worked out once.
+	 */
+	long fingerprint() {
+		long fingerprint = this.fingerprint;
+		if(fingerprint == 0) this.fingerprint = fingerprint = StateTable.fingerprint(getLastAlgebraicExpression());
+		return fingerprint;
 	}
 	
 	/**
@@ -101,7 +175,7 @@ public class Solution {
 	 * Sets the solution's summary.
 	 * @param summary The summary to set
 	 */
-	public void setSummary(String summary) {
+	void setSummary(String summary) {
 		this.summary = summary;
 	}
 	
@@ -118,16 +192,33 @@ public class Solution {
 	 * to true if you want the summary at the end, otherwise false.
 	 * @param summaryLast True for a summary at the end, or false to place it at the beginning.
 	 */
-	public void setSummaryLast(boolean summaryLast) {
+	void setSummaryLast(boolean summaryLast) {
 		this.summaryLast = summaryLast;
 	}
 
+	/**
+	 * Tells if solving was stopped because it ran out of time before a complete solution was 
+	 * found, in which case this is the best partial solution found.
+	 * @return True if solving ran out of time.
+	 */
+	public boolean isTimedOut() {
+		return timedOut;
+	}
+	
+	/**
+	 * Sets whether solving ran out of time before this solution could be completed.
+	 * @param timedOut True if solving ran out of time.
+	 */
+	void setTimedOut(boolean timedOut) {
+		this.timedOut = timedOut;
+	}
+	
 	/* (non-Javadoc)
 	 * @see java.lang.Object#toString()
 	 */
 	@Override
 	public String toString() {
-		return "Solution [steps=" + steps + ", original=" + original + "]";
+		return "Solution [steps=" + Arrays.toString(getArray()) + ", original=" + original + "]";
 	}
 	
 	/**
@@ -136,6 +227,25 @@ public class Solution {
 	public Algebra getOriginalAlgebraicExpression() {
 		return original;
 	}
+	
+	/**
+	 * An immutable link in a chain of steps. Each link holds one step and points to the link 
+	 * before it, so chains that start out the same can share their links.
+	 */
+	private static final class Link {
+		
+		final Link previous;
+		final Step step;
+		//the number of steps in the chain ending with this link
+		final int length;
+		
+		Link(Link previous, Step step) {
+			this.previous = previous;
+			this.step = step;
+			this.length = previous == null ? 1 : previous.length + 1;
+		}
+		
+	}
 
 		
 }
\ No newline at end of file
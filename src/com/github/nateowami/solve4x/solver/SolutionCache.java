@@ -0,0 +1,217 @@
+/*
+    Solve4x - An algebra solver that shows its work
+    Copyright (C) 2015  Nathaniel Paulus
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.nateowami.solve4x.solver;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.github.nateowami.solve4x.config.RoundingRule;
+import com.github.nateowami.solve4x.solver.Solver.SolveFor;
+import com.github.nateowami.solve4x.solver.Solver.Strategy;
+
+/**
+ * Remembers the solutions to problems that have already been solved, so solving the same 
+ * problem again is just a lookup. Problems are looked up by their input (ignoring spaces and 
+ * commas, like {@link Solver} does), what to solve for, the rounding rule, and the strategy. Only 
+ * a limited number of solutions are kept; when the cache is full, the least recently used one is 
+ * forgotten. Problems that have to be solved are solved with one {@link SolverEngine} for each 
+ * rounding rule and strategy, and the engines for the {@value #ENGINES} most recently used 
+ * combinations are kept.
+ * 
+ * The same Solution is returned each time a problem is looked up, which is safe since neither 
+ * solutions nor their steps can be changed once they've been handed out. Solutions that were cut 
+ * short by a deadline aren't kept, since with more time the problem might be solved completely. 
+ * A SolutionCache may be used by several threads at once, though if two threads ask for the 
+ * same new problem at once, both will solve it.
+ * @author Nateowami
+ */
+public class SolutionCache {
+	
+	//the number of engines kept
+	static final int ENGINES = 8;
+	
+	//the solution for each problem, with the least recently used first
+	private final LinkedHashMap<Key, Solution> solutions;
+	//the engine used for each rounding rule and strategy (keyed with no input and nothing to solve 
+	//for), with the least recently used first, kept so that what an engine remembers is reused by 
+	//every problem it solves
+	private final LinkedHashMap<Key, SolverEngine> engines = new LinkedHashMap<Key, SolverEngine>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, SolverEngine> eldest) {
+			return size() > ENGINES;
+		}
+	};
+	//the number of problems that were found in the cache, and that had to be solved
+	private long hits = 0, misses = 0;
+	
+	/**
+	 * Creates a new, empty SolutionCache.
+	 * @param capacity The number of solutions to keep (must be at least 1).
+	 * @throws IllegalArgumentException If capacity is less than 1.
+	 */
+	public SolutionCache(final int capacity) {
+		if(capacity < 1) throw new IllegalArgumentException("Capacity must be at least 1, but was " + capacity);
+		this.solutions = new LinkedHashMap<Key, Solution>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Solution> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+	
+	/**
+	 * Finds the solution to a problem, solving it with a breadth-first search if it isn't in the 
+	 * cache. See {@link Solver#Solver(String, SolveFor, RoundingRule)}.
+	 * @param input The equation or expression to solve, simplify, factor, multiply, etc.
+	 * @param solveFor What to solve for. See {@link Solver.SolveFor}.
+	 * @param round A RoundingRule for rounding arithmetic operations.
+	 * @return The solution.
+	 * @throws IllegalArgumentException If solveFor is SOLVE but input was not an equation, or 
+	 * input was an equation, but solveFor was not SOLVE.
+	 * @throws ParsingException If the input cannot be parsed as algebra.
+	 */
+	public Solution solve(String input, SolveFor solveFor, RoundingRule round) throws IllegalArgumentException, ParsingException {
+		return solve(input, solveFor, round, Strategy.BREADTH_FIRST, Deadline.NONE);
+	}
+	
+	/**
+	 * Finds the solution to a problem, solving it if it isn't in the cache. See 
+	 * {@link Solver#Solver(String, SolveFor, RoundingRule, Strategy, Deadline)}.
+	 * @param input The equation or expression to solve, simplify, factor, multiply, etc.
+	 * @param solveFor What to solve for. See {@link Solver.SolveFor}.
+	 * @param round A RoundingRule for rounding arithmetic operations.
+	 * @param strategy The way to search for a solution. See {@link Solver.Strategy}.
+	 * @param deadline When to stop searching if the problem needs to be solved. A solution that 
+	 * runs out of time is returned, but not kept.
+	 * @return The solution.
+	 * @throws IllegalArgumentException If solveFor is SOLVE but input was not an equation, or 
+	 * input was an equation, but solveFor was not SOLVE.
+	 * @throws ParsingException If the input cannot be parsed as algebra.
+	 */
+	public Solution solve(String input, SolveFor solveFor, RoundingRule round, Strategy strategy, Deadline deadline) 
+			throws IllegalArgumentException, ParsingException {
+		Key key = new Key(Solver.normalize(input), solveFor, round, strategy);
+		SolverEngine engine;
+		synchronized(this) {
+			Solution solution = solutions.get(key);
+			if(solution != null) {
+				hits++;
+				return solution;
+			}
+			misses++;
+			engine = engine(round, strategy);
+		}
+		
+		//solve without holding the lock, so other problems can be looked up meanwhile
+		Solution solution = new Solver(input, solveFor, engine, deadline).getSolution();
+		if(!solution.isTimedOut()) {
+			synchronized(this) {
+				solutions.put(key, solution);
+			}
+		}
+		return solution;
+	}
+	
+	/**
+	 * Finds the engine for a rounding rule and strategy, creating it the first time it's needed.
+	 * @param round A RoundingRule for rounding arithmetic operations.
+	 * @param strategy The way to search for a solution.
+	 * @return The engine.
+	 */
+	synchronized SolverEngine engine(RoundingRule round, Strategy strategy) {
+		Key key = new Key("", null, round, strategy);
+		SolverEngine engine = engines.get(key);
+		if(engine == null) {
+			engine = new SolverEngine(round, new SolverEngine.Options().strategy(strategy));
+			engines.put(key, engine);
+		}
+		return engine;
+	}
+	
+	/**
+	 * @return The number of times a problem was found in the cache.
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+	
+	/**
+	 * @return The number of times a problem wasn't in the cache, and had to be solved.
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+	
+	/**
+	 * @return The number of solutions in the cache.
+	 */
+	public synchronized int size() {
+		return solutions.size();
+	}
+	
+	/**
+	 * Forgets every solution in the cache (the hit and miss counts are kept).
+	 */
+	public synchronized void clear() {
+		solutions.clear();
+	}
+	
+	/**
+	 * A problem: the normalized input, what to solve for, the rounding rule, and the strategy.
+	 */
+	private static final class Key {
+		
+		private final String input;
+		private final SolveFor solveFor;
+		private final RoundingRule round;
+		private final Strategy strategy;
+		
+		private Key(String input, SolveFor solveFor, RoundingRule round, Strategy strategy) {
+			this.input = input;
+			this.solveFor = solveFor;
+			this.round = round;
+			this.strategy = strategy;
+		}
+		
+		/* (non-Javadoc)
+		 * @see java.lang.Object#hashCode()
+		 */
+		@Override
+		public int hashCode() {
+			int result = input.hashCode();
+			result = 31 * result + (solveFor == null ? 0 : solveFor.hashCode());
+			result = 31 * result + (round == null ? 0 : round.hashCode());
+			return 31 * result + (strategy == null ? 0 : strategy.hashCode());
+		}
+		
+		/* (non-Javadoc)
+		 * @see java.lang.Object#equals(java.lang.Object)
+		 */
+		@Override
+		public boolean equals(Object obj) {
+			if(!(obj instanceof Key)) return false;
+			Key other = (Key) obj;
+			return input.equals(other.input) && solveFor == other.solveFor && strategy == other.strategy
+					&& (round == null ? other.round == null : round.equals(other.round));
+		}
+		
+	}
+	
+}
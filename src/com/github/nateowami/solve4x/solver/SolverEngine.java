@@ -0,0 +1,1006 @@
+/*
+    Solve4x - An algebra solver that shows its work
+    Copyright (C) 2015  Nathaniel Paulus
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.nateowami.solve4x.solver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import com.github.nateowami.solve4x.algorithm.*;
+import com.github.nateowami.solve4x.config.RoundingRule;
+import com.github.nateowami.solve4x.solver.Solver.SolveFor;
+import com.github.nateowami.solve4x.solver.Solver.Strategy;
+
+/**
+ * Searches for solutions to algebra. A SolverEngine is configured once, with the algorithms it 
+ * may use and the limits on its search, and can then solve any number of problems. It's 
+ * thread-safe and can be shared by any number of threads, which avoids setting up the algorithms 
+ * for every problem. Its configuration never changes, but it does remember the sides of 
+ * equations it has simplified (see {@link SubtreeMemo}), so later solves may reuse the work of 
+ * earlier ones. {@link Solver} is a convenient wrapper for solving a single problem given as a 
+ * string.
+ * @author Nateowami
+ */
+public class SolverEngine {
+	
+	//the number of partial solutions a beam search keeps at each level if no width is given
+	public static final int DEFAULT_BEAM_WIDTH = 20;
+	//the maximum number of steps a solution may have before we give up on it, if not specified
+	public static final int DEFAULT_MAX_STEPS = 25;
+	
+	//the maximum number of partial solutions a best-first search may expand before giving up
+	private static final int MAX_EXPANSIONS = 2500;
+	
+	//the algorithms that can be used for each thing we can solve for
+	private final Map<SolveFor, List<Algorithm>> algorithms;
+	//the way to search for a solution
+	private final Strategy strategy;
+	//the number of partial solutions a beam search keeps at each level
+	private final int beamWidth;
+	//the maximum number of steps a solution may have
+	private final int maxSteps;
+	//the number of milliseconds a search may take, or 0 for no limit
+	private final long timeLimit;
+	//how the sides of equations were simplified, or null if we're not remembering
+	private final SubtreeMemo subtrees;
+	//whether to simplify independent parts of the input on their own first
+	private final boolean decompose;
+	
+	/**
+	 * Creates a new SolverEngine that uses the usual algorithms and the default options (see 
+	 * {@link Options}).
+	 * @param round A RoundingRule for rounding arithmetic operations.
+	 */
+	public SolverEngine(RoundingRule round) {
+		this(round, new Options());
+	}
+	
+	/**
+	 * Creates a new SolverEngine that uses the usual algorithms.
+	 * @param round A RoundingRule for rounding arithmetic operations.
+	 * @param options How to search for solutions. Changing them afterward doesn't affect the engine.
+	 */
+	public SolverEngine(RoundingRule round, Options options) {
+		this(getAlgorithms(round), options);
+	}
+	
+	/**
+	 * Creates a new SolverEngine that uses the given algorithms. The algorithms must not keep any 
+	 * state between calls, since they may be used by several threads at once.
+	 * @param algorithms The algorithms to use for each thing that can be solved for. Nothing can 
+	 * be solved for if it doesn't have any algorithms.
+	 * @param options How to search for solutions. Changing them afterward doesn't affect the engine.
+	 */
+	public SolverEngine(Map<SolveFor, ? extends List<? extends Algorithm>> algorithms, Options options) {
+		//copy the algorithms so no one can change them out from under us
+		EnumMap<SolveFor, List<Algorithm>> copy = new EnumMap<SolveFor, List<Algorithm>>(SolveFor.class);
+		for(Map.Entry<SolveFor, ? extends List<? extends Algorithm>> entry : algorithms.entrySet()) {
+			copy.put(entry.getKey(), Collections.unmodifiableList(new ArrayList<Algorithm>(entry.getValue())));
+		}
+		this.algorithms = Collections.unmodifiableMap(copy);
+		this.strategy = options.strategy;
+		this.beamWidth = options.beamWidth;
+		this.maxSteps = options.maxSteps;
+		this.timeLimit = options.timeLimit;
+		this.subtrees = options.subtreeMemoCapacity > 0 ? new SubtreeMemo(options.subtreeMemoCapacity) : null;
+		this.decompose = options.decompose;
+	}
+	
+	/**
+	 * The options a SolverEngine is created with. Each option has a default, so only the ones 
+	 * that matter need to be set, e.g. 
+	 * <code>new Options().strategy(Strategy.BEAM).beamWidth(5)</code>. The defaults are a 
+	 * breadth-first search with no time limit that doesn't remember simplified sides or decompose 
+	 * its input.
+	 */
+	public static class Options {
+		
+		private Strategy strategy = Strategy.BREADTH_FIRST;
+		private int beamWidth = DEFAULT_BEAM_WIDTH;
+		private int maxSteps = DEFAULT_MAX_STEPS;
+		private long timeLimit = 0;
+		private int subtreeMemoCapacity = 0;
+		private boolean decompose = false;
+		
+		/**
+		 * @param strategy The way to search for a solution. See {@link Solver.Strategy}.
+		 * @return Returns this so you can chain methods.
+		 */
+		public Options strategy(Strategy strategy) {
+			this.strategy = strategy;
+			return this;
+		}
+		
+		/**
+		 * @param beamWidth The number of partial solutions to keep at each level of a beam search 
+		 * (ignored by other strategies). Defaults to {@value SolverEngine#DEFAULT_BEAM_WIDTH}.
+		 * @return Returns this so you can chain methods.
+		 * @throws IllegalArgumentException If beamWidth is less than 1.
+		 */
+		public Options beamWidth(int beamWidth) throws IllegalArgumentException {
+			if(beamWidth < 1) throw new IllegalArgumentException("Beam width must be at least 1.");
+			this.beamWidth = beamWidth;
+			return this;
+		}
+		
+		/**
+		 * @param maxSteps The maximum number of steps a solution may have. Defaults to 
+		 * {@value SolverEngine#DEFAULT_MAX_STEPS}.
+		 * @return Returns this so you can chain methods.
+		 * @throws IllegalArgumentException If maxSteps is less than 1.
+		 */
+		public Options maxSteps(int maxSteps) throws IllegalArgumentException {
+			if(maxSteps < 1) throw new IllegalArgumentException("Maximum number of steps must be at least 1.");
+			this.maxSteps = maxSteps;
+			return this;
+		}
+		
+		/**
+		 * @param timeLimit The number of milliseconds each search may take before settling for the 
+		 * best partial solution, or 0 for no limit (the default).
+		 * @return Returns this so you can chain methods.
+		 * @throws IllegalArgumentException If timeLimit is negative.
+		 */
+		public Options timeLimit(long timeLimit) throws IllegalArgumentException {
+			if(timeLimit < 0) throw new IllegalArgumentException("Time limit cannot be negative.");
+			this.timeLimit = timeLimit;
+			return this;
+		}
+		
+		/**
+		 * Sets how many simplified sides of equations the engine remembers. When solving an 
+		 * equation, each side that isn't simplified is simplified on its own (with a search of its 
+		 * own) the first time it's seen, and the steps that simplified it are remembered. Every 
+		 * partial solution with that side can then take all of those steps at once, instead of 
+		 * searching for them again; the usual steps are still tried as well. What's remembered is 
+		 * kept for as long as the engine is, so it's shared by every problem the engine solves.
+		 * @param subtreeMemoCapacity The number of simplified sides of equations to remember, or 0 
+		 * to not remember any (the default).
+		 * @return Returns this so you can chain methods.
+		 * @throws IllegalArgumentException If subtreeMemoCapacity is negative.
+		 */
+		public Options subtreeMemoCapacity(int subtreeMemoCapacity) throws IllegalArgumentException {
+			if(subtreeMemoCapacity < 0) throw new IllegalArgumentException("Subtree memo capacity cannot be negative.");
+			this.subtreeMemoCapacity = subtreeMemoCapacity;
+			return this;
+		}
+		
+		/**
+		 * Sets whether the engine breaks the input into independent parts. The sides of an 
+		 * equation being solved, and the factors of a term being simplified (such as the fractions 
+		 * in (a)/(b)(c)/(d)), can be simplified without regard to each other. When decomposing, 
+		 * each of those parts that isn't simplified gets a search of its own, and the searches run 
+		 * in parallel; their steps are then joined one part after another, and the usual search 
+		 * carries on from where they left off. This is usually much faster for inputs with several 
+		 * busy parts, but the solution may take more steps than the usual search would have.
+		 * @param decompose True to simplify independent parts of the input in parallel before 
+		 * searching as usual. Defaults to false.
+		 * @return Returns this so you can chain methods.
+		 */
+		public Options decompose(boolean decompose) {
+			this.decompose = decompose;
+			return this;
+		}
+		
+	}
+	
+	/**
+	 * Solves, simplifies, or factors algebra, within this engine's time limit (if it has one).
+	 * @param algebra The algebra to work on.
+	 * @param solveFor What to do with it. See {@link Solver.SolveFor}.
+	 * @return The solution, or the best partial solution if it couldn't be finished.
+	 * @throws IllegalArgumentException If solveFor is SOLVE but algebra is not an equation, or 
+	 * algebra is an equation, but solveFor is not SOLVE.
+	 */
+	public Solution solve(Algebra algebra, SolveFor solveFor) throws IllegalArgumentException {
+		return solve(algebra, solveFor, timeLimit > 0 ? Deadline.after(timeLimit) : Deadline.NONE);
+	}
+	
+	/**
+	 * Solves, simplifies, or factors algebra, stopping when the given deadline passes (this 
+	 * engine's own time limit is ignored). If no complete solution has been found by then, the 
+	 * best partial solution is returned, and its {@link Solution#isTimedOut()} returns true.
+	 * @param algebra The algebra to work on.
+	 * @param solveFor What to do with it. See {@link Solver.SolveFor}.
+	 * @param deadline When to stop searching.
+	 * @return The solution, or the best partial solution if it couldn't be finished.
+	 * @throws IllegalArgumentException If solveFor is SOLVE but algebra is not an equation, or 
+	 * algebra is an equation, but solveFor is not SOLVE.
+	 */
+	public Solution solve(Algebra algebra, SolveFor solveFor, Deadline deadline) throws IllegalArgumentException {
+		return solve(algebra, solveFor, deadline, null);
+	}
+	
+	/**
+	 * Works like {@link #solve(Algebra, SolveFor, Deadline)}, but also records statistics about the 
+	 * search, such as how many partial solutions were expanded and how much time was spent in 
+	 * each algorithm. Collecting statistics slows the search slightly.
+	 * @param algebra The algebra to work on.
+	 * @param solveFor What to do with it. See {@link Solver.SolveFor}.
+	 * @param deadline When to stop searching.
+	 * @param stats The SolverStats to record statistics in, or null to not record any.
+	 * @return The solution, or the best partial solution if it couldn't be finished.
+	 * @throws IllegalArgumentException If solveFor is SOLVE but algebra is not an equation, or 
+	 * algebra is an equation, but solveFor is not SOLVE.
+	 */
+	public Solution solve(Algebra algebra, SolveFor solveFor, Deadline deadline, SolverStats stats) throws IllegalArgumentException {
+		if(solveFor == SolveFor.SOLVE && !(algebra instanceof Equation)) {
+			throw new IllegalArgumentException("Solving requested but input was not an equation.");
+		}
+		if(solveFor != SolveFor.SOLVE && algebra instanceof Equation) {
+			throw new IllegalArgumentException("Input was requested, but something other than solving was requested.");
+		}
+		
+		Search search = new Search(solveFor, deadline, stats);
+		return search.run(decompose ? search.decompose(algebra) : new Solution(algebra), true);
+	}
+	
+	/**
+	 * A single search for a solution, which keeps track of what's being solved for and when to 
+	 * stop.
+	 */
+	private class Search {
+		
+		//what we're solving for
+		private final SolveFor solveFor;
+		//the algorithms that can be used
+		private final List<Algorithm> algorithms;
+		//when to give up and settle for the best partial solution
+		private final Deadline deadline;
+		//where to record statistics (may be null)
+		private final SolverStats stats;
+		//whether the search was cut short by the deadline
+		private boolean timedOut = false;
+		//the smarts already worked out for algebra shared between states
+		private final SmartsMemo memo = new SmartsMemo();
+		
+		private Search(SolveFor solveFor, Deadline deadline, SolverStats stats) {
+			this.solveFor = solveFor;
+			List<Algorithm> algorithms = SolverEngine.this.algorithms.get(solveFor);
+			this.algorithms = algorithms == null ? Collections.<Algorithm>emptyList() : algorithms;
+			this.deadline = deadline;
+			this.stats = stats;
+		}
+		
+		/**
+		 * Searches for a solution using the engine's strategy.
+		 * @param start The partial solution to start from.
+		 * @param parallel False to expand partial solutions on this thread only, even if the 
+		 * strategy is PARALLEL_BREADTH_FIRST.
+		 * @return The solution, or the best partial solution if it couldn't be finished.
+		 */
+		private Solution run(Solution start, boolean parallel) {
+			Solution solution;
+			switch(strategy) {
+			case BEST_FIRST:
+				solution = bestFirst(start);
+				break;
+			case PARALLEL_BREADTH_FIRST:
+				solution = breadthFirst(start, parallel, 0);
+				break;
+			case BEAM:
+				solution = breadthFirst(start, false, beamWidth);
+				break;
+			default:
+				solution = breadthFirst(start, false, 0);
+			}
+			if(timedOut) solution.setTimedOut(true);
+			return solution;
+		}
+		
+		/**
+		 * Searches for a solution one level at a time, expanding every surviving partial solution at 
+		 * each level. If a beam width is given, only that many of the most promising steps are taken 
+		 * at each level (see {@link #expandBeam(List, StateTable, List, int)}).
+		 * @param start The partial solution to start from.
+		 * @param parallel True to expand the partial solutions of each level on several threads.
+		 * @param beamWidth The number of partial solutions to keep at each level, or 0 to keep them all.
+		 * @return The shortest complete solution, or the best partial solution if none was found.
+		 */
+		private Solution breadthFirst(Solution start, boolean parallel, int beamWidth) {
+			//create a list of solutions
+			ArrayList<Solution> currentSolutions = new ArrayList<Solution>();
+			currentSolutions.add(start);
+			
+			//as we solve, keep a set of all previous states we've reached
+			StateTable previousStates = new StateTable();
+			previousStates.add(start.getLastAlgebraicExpression());
+			
+			//keep track of the best solution we get (smallest result) so if we can't finish completely we have an OK result
+			Solution bestSoFar = currentSolutions.get(0);
+			int bestSizeSoFar = -1;
+			
+			// Loop until one of the following conditions is met:
+			// - No solutions have survived
+			// - A complete solution has been found
+			// - We've looped maxSteps times already
+			// - The deadline has passed
+			for(int i = 0; currentSolutions.size() > 0 && findSolution(currentSolutions) == null && i < maxSteps && !timedOut(); i++){
+				//take out/copy all the solutions and remove them from the list
+				ArrayList<Solution> previousSolutions = new ArrayList<Solution>(currentSolutions);
+				currentSolutions = new ArrayList<Solution>();
+				
+				//loop through the solutions dispatching algorithms
+				int expanded = 0, duplicates = 0;
+				if(beamWidth > 0) {
+					//only the most promising steps are created, so none need to be thrown away afterwards
+					expanded = expandBeam(previousSolutions, previousStates, currentSolutions, beamWidth);
+				}
+				else if(parallel) {
+					currentSolutions.addAll(dispatchInParallel(previousSolutions, previousStates));
+					expanded = previousSolutions.size();
+				}
+				else for(Solution solution : previousSolutions) {
+					//whatever we've found so far this level still counts if we run out of time
+					if(deadline.hasPassed()) break;
+					currentSolutions.addAll(dispatchAlgorithms(solution, previousStates));
+					expanded++;
+				}
+				//add each new solving state to the set of states we've reached (a beam already has)
+				Iterator<Solution> itr = currentSolutions.iterator();
+				
+				//remove all solutions that reach states that have already been reached, while adding 
+				//new states to the list of previous states
+				while(beamWidth == 0 && itr.hasNext()) {
+					if(!previousStates.add(itr.next())) {
+						itr.remove();
+						duplicates++;
+					}
+				}
+
+				if(stats != null) {
+					stats.addIteration(expanded, currentSolutions.size());
+					stats.addDedupHits(duplicates);
+				}
+				
+				//find the best of the current solutions (i.e. the one that came the closest to solving)
+				for(Solution solution : currentSolutions) {
+					int size = solution.getLastAlgebraicExpression().nodeCount();
+					if(bestSizeSoFar == -1 || size < bestSizeSoFar) {
+						bestSizeSoFar = size;
+						bestSoFar = solution;
+					}
+				}
+			}
+			
+			Solution solution = findSolution(currentSolutions);
+			//if there is no solution go with the best one
+			return solution != null ? solution : partial(bestSoFar);
+		}
+		
+		/**
+		 * Searches for a solution by always expanding the most promising partial solution found so 
+		 * far (the one with the lowest {@link SolverEngine#cost(Solution)}), and stops at the first complete 
+		 * solution. Partial solutions that have reached the maximum number of steps are not expanded, 
+		 * and the search gives up after a fixed number of expansions or when the deadline passes. 
+		 * Expanding a partial solution only finds the steps that could be taken; each step is queued 
+		 * at its estimated cost (see {@link Candidates#nextCost()}) and only taken when it reaches 
+		 * the front of the queue, so steps that are never needed are never created.
+		 * @param start The partial solution to start from.
+		 * @return The first complete solution found, or the best partial solution if none was found.
+		 */
+		private Solution bestFirst(Solution start) {
+			PriorityQueue<Ranked> queue = new PriorityQueue<Ranked>();
+			//count the partial solutions we've queued so ties are broken by the order they were found
+			long order = 0;
+			queue.add(new Ranked(start, cost(start), order++));
+			
+			//as we solve, keep a set of all previous states we've reached
+			StateTable previousStates = new StateTable();
+			previousStates.add(start.getLastAlgebraicExpression());
+			
+			//keep track of the best solution we get (smallest result) so if we can't finish completely we have an OK result
+			Solution bestSoFar = start;
+			int bestSizeSoFar = -1;
+			
+			int expanded = 0;
+			while(!queue.isEmpty() && expanded < MAX_EXPANSIONS && !timedOut()) {
+				Ranked next = queue.poll();
+				
+				//if it's a step that hasn't been taken yet, take it and queue the result
+				if(next.candidates != null) {
+					Candidates candidates = next.candidates;
+					Solution solution = take(candidates, candidates.next(), previousStates);
+					if(candidates.hasNext()) queue.add(new Ranked(candidates, candidates.nextCost(), order++));
+					if(solution != null) {
+						previousStates.add(solution);
+						queue.add(new Ranked(solution, cost(solution), order++));
+					}
+					continue;
+				}
+				
+				Solution solution = next.solution;
+				if(isFinished(solution.getLastAlgebraicExpression(), solveFor)) return solution;
+				
+				int size = solution.getLastAlgebraicExpression().nodeCount();
+				if(bestSizeSoFar == -1 || size < bestSizeSoFar) {
+					bestSizeSoFar = size;
+					bestSoFar = solution;
+				}
+				
+				if(solution.length() >= maxSteps) continue;
+				for(Solution spliced : spliceSimplifiedSides(solution, previousStates)) {
+					previousStates.add(spliced);
+					queue.add(new Ranked(spliced, cost(spliced), order++));
+				}
+				//queue the possible steps without taking any of them yet
+				Candidates candidates = findCandidates(solution, next.cost);
+				if(candidates.hasNext()) queue.add(new Ranked(candidates, candidates.nextCost(), order++));
+				expanded++;
+				if(stats != null) stats.addIteration(1, queue.size());
+			}
+			return partial(bestSoFar);
+		}
+		
+		/**
+		 * Takes the most promising steps from a list of partial solutions, for one level of a beam 
+		 * search. The possible steps from every partial solution are found first, and are then taken 
+		 * from the most promising down (by {@link Candidates#nextCost()}, ties going to the partial 
+		 * solution that came first), until enough new states have been reached. Steps that aren't 
+		 * needed are never created.
+		 * @param solutions The partial solutions to work on.
+		 * @param states The states that have already been reached, which the new states are added to.
+		 * @param result The list to add the new partial solutions to.
+		 * @param beamWidth The number of new partial solutions wanted.
+		 * @return The number of partial solutions that were expanded.
+		 */
+		private int expandBeam(List<Solution> solutions, StateTable states, List<Solution> result, int beamWidth) {
+			PriorityQueue<Ranked> queue = new PriorityQueue<Ranked>();
+			int expanded = 0;
+			for(Solution solution : solutions) {
+				if(deadline.hasPassed()) break;
+				for(Solution spliced : spliceSimplifiedSides(solution, states)) {
+					if(result.size() < beamWidth && states.add(spliced)) result.add(spliced);
+				}
+				Candidates candidates = findCandidates(solution, cost(solution));
+				if(candidates.hasNext()) queue.add(new Ranked(candidates, candidates.nextCost(), expanded));
+				expanded++;
+			}
+			
+			while(result.size() < beamWidth && !queue.isEmpty() && !deadline.hasPassed()) {
+				Ranked next = queue.poll();
+				Candidates candidates = next.candidates;
+				Solution solution = take(candidates, candidates.next(), states);
+				if(candidates.hasNext()) queue.add(new Ranked(candidates, candidates.nextCost(), next.order));
+				if(solution == null) continue;
+				
+				states.add(solution);
+				result.add(solution);
+				//no need to go on once it's solved
+				if(isFinished(solution.getLastAlgebraicExpression(), solveFor)) break;
+			}
+			return expanded;
+		}
+		
+		/**
+		 * Checks if the deadline has passed, and if so remembers that the search was cut short.
+		 * @return True if the deadline has passed.
+		 */
+		private boolean timedOut() {
+			if(!timedOut && deadline.hasPassed()) timedOut = true;
+			return timedOut;
+		}
+		
+		/**
+		 * Tells which Solution is the best.
+		 * @param solutions An ArrayList of Solutions to search.
+		 * @return The Solution that is solved with fewest steps, or null if no solutions are given, or 
+		 * none are completely solved/simplified.
+		 */
+		private Solution findSolution(ArrayList<Solution> solutions) {
+			//the best-so-far solution
+			Solution workingSolution = null;
+			boolean firstIteration = true;
+			
+			//iterate over the solutions and find the shortest one
+			for(Solution solution : solutions){
+				if(isFinished(solution.getLastAlgebraicExpression(), solveFor) 
+						&& (firstIteration || solution.length() < workingSolution.length())){
+					workingSolution = solution;
+					firstIteration = false;
+				}
+			}
+			return workingSolution;
+		}
+		
+		/**
+		 * Dispatches algorithms to work on each of the given partial solutions, using a shared pool of 
+		 * threads (one per processor). The results are returned in the same order as they would be by 
+		 * calling {@link #dispatchAlgorithms(Solution, StateTable)} on each solution in turn, so the search 
+		 * stays deterministic: when two partial solutions reach the same state, the one that comes 
+		 * first in the list wins. The set of states is only read while the threads are working; it's 
+		 * the caller's job to update it once this method has returned.
+		 * @param solutions The partial solutions to work on.
+		 * @param states The states that have already been reached.
+		 * @return A list of solutions based off the provided solutions.
+		 */
+		private ArrayList<Solution> dispatchInParallel(List<Solution> solutions, final StateTable states) {
+			ArrayList<Solution> result = new ArrayList<Solution>();
+			//not worth handing a single solution off to another thread
+			if(solutions.size() == 1) {
+				result.addAll(dispatchAlgorithms(solutions.get(0), states));
+				return result;
+			}
+			
+			ArrayList<Callable<ArrayList<Solution>>> tasks = new ArrayList<Callable<ArrayList<Solution>>>(solutions.size());
+			for(final Solution solution : solutions) {
+				tasks.add(new Callable<ArrayList<Solution>>() {
+					public ArrayList<Solution> call() {
+						//don't start on any more solutions once we've run out of time
+						if(deadline.hasPassed()) return new ArrayList<Solution>();
+						return dispatchAlgorithms(solution, states);
+					}
+				});
+			}
+			
+			for(ArrayList<Solution> found : Workers.invokeAll(tasks)) result.addAll(found);
+			return result;
+		}
+		
+		/**
+		 * Dispatches algorithms to work on a partial solution.
+		 * @param solution The solution to work on.
+		 * @param states The states that have already been reached.
+		 * @return A list of solutions based off the provided solution.
+		 */
+		private ArrayList<Solution> dispatchAlgorithms(Solution solution, StateTable states){
+			ArrayList<Solution> solutions = spliceSimplifiedSides(solution, states);
+			Candidates candidates = findCandidates(solution, 0);
+			//now actually work with what we found
+			while(candidates.hasNext()) {
+				Solution newSolution = take(candidates, candidates.next(), states);
+				if(newSolution != null) solutions.add(newSolution);
+			}
+			return solutions;
+		}
+		
+		/**
+		 * Takes all the steps that simplified each side of an equation at once, if the engine 
+		 * remembers how the sides were simplified (see 
+		 * {@link Options#subtreeMemoCapacity(int)}). A side that hasn't 
+		 * been seen before is simplified with a search of its own first.
+		 * @param solution The partial solution to work on.
+		 * @param states The states that have already been reached (only read).
+		 * @return The partial solutions with a side simplified, one for each side that could be 
+		 * simplified without exceeding the maximum number of steps or reaching a state that has 
+		 * already been reached (empty if the engine doesn't remember simplified sides).
+		 */
+		private ArrayList<Solution> spliceSimplifiedSides(Solution solution, StateTable states) {
+			ArrayList<Solution> solutions = new ArrayList<Solution>();
+			if(subtrees == null || solveFor != SolveFor.SOLVE) return solutions;
+			
+			Tree tree = solution.tree();
+			for(int i = 0; i < tree.length(); i++) {
+				Tree side = tree.get(i);
+				if(isFinished(side.algebra(), SolveFor.SIMPLIFY)) continue;
+				
+				Solution simplified = subtrees.get(side.algebra());
+				if(simplified == null) {
+					if(timedOut()) break;
+					simplified = simplify(side.algebra());
+					//with more time it might have been simplified further, so don't remember it
+					if(simplified.isTimedOut()) continue;
+					subtrees.put(side.algebra(), simplified);
+				}
+				if(simplified.length() == 0 || solution.length() + simplified.length() > maxSteps 
+						|| !isFinished(simplified.getLastAlgebraicExpression(), SolveFor.SIMPLIFY)) continue;
+				
+				//take each step on this side of the equation
+				Solution spliced = new Solution(solution);
+				spliced.setTree(splice(spliced, side, simplified));
+				if(states.contains(spliced)) continue;
+				solutions.add(spliced);
+			}
+			return solutions;
+		}
+		
+		/**
+		 * Simplifies the independent parts of algebra on their own, in parallel, and joins the steps 
+		 * that simplified them into a single partial solution (see 
+		 * {@link Options#decompose(boolean)}). The sides 
+		 * of an equation are independent when solving, and the factors of a term when simplifying.
+		 * @param algebra The algebra to start from.
+		 * @return A partial solution with the parts that could be fully simplified simplified (it has 
+		 * no steps if none could be).
+		 */
+		private Solution decompose(Algebra algebra) {
+			Solution solution = new Solution(algebra);
+			if(!(solveFor == SolveFor.SOLVE && algebra instanceof Equation 
+					|| solveFor == SolveFor.SIMPLIFY && algebra instanceof Term)) return solution;
+			
+			Tree tree = solution.tree();
+			ArrayList<Integer> parts = new ArrayList<Integer>();
+			ArrayList<Callable<Solution>> tasks = new ArrayList<Callable<Solution>>();
+			for(int i = 0; i < tree.length(); i++) {
+				final Algebra part = tree.get(i).algebra();
+				if(isFinished(part, SolveFor.SIMPLIFY)) continue;
+				parts.add(i);
+				tasks.add(new Callable<Solution>() {
+					public Solution call() {
+						return simplify(part);
+					}
+				});
+			}
+			if(parts.isEmpty()) return solution;
+			//not worth handing a single part off to another thread
+			List<Solution> simplified = parts.size() > 1 ? Workers.invokeAll(tasks) 
+					: Collections.singletonList(simplify(tree.get(parts.get(0)).algebra()));
+			
+			//take the steps for one part after another, each on the tree left by the last
+			for(int i = 0; i < parts.size(); i++) {
+				Solution part = simplified.get(i);
+				if(part.length() == 0 || solution.length() + part.length() > maxSteps 
+						|| !isFinished(part.getLastAlgebraicExpression(), SolveFor.SIMPLIFY)) continue;
+				//a term inside a term can't be multiplied out, so leave that part to the usual search
+				if(algebra instanceof Term && part.getLastAlgebraicExpression() instanceof Term) continue;
+				tree = splice(solution, tree.get(parts.get(i)), part);
+				solution.setTree(tree);
+			}
+			return solution;
+		}
+		
+		/**
+		 * Simplifies part of the algebra with a search of its own, on this thread (so a parallel 
+		 * search doesn't wait on itself), before this search's deadline. The work it does is 
+		 * counted in this search's statistics.
+		 * @param part The part to simplify.
+		 * @return The solution, or the best partial solution if it couldn't be simplified.
+		 */
+		private Solution simplify(Algebra part) {
+			return new Search(SolveFor.SIMPLIFY, deadline, stats).run(new Solution(part), false);
+		}
+		
+		/**
+		 * Takes the steps of a solution to part of the algebra, as steps of a solution to the whole. 
+		 * Each step keeps the explanation it had, and the smarts of the part's solution are added 
+		 * with the last step.
+		 * @param solution The solution to the whole, which the steps are added to.
+		 * @param node The part of the latest state of solution that was worked on.
+		 * @param part The solution to the part (it must have at least one step).
+		 * @return The tree of the new latest state of solution.
+		 */
+		private Tree splice(Solution solution, Tree node, Solution part) {
+			Tree result = null;
+			for(int j = 0; j < part.length(); j++) {
+				final Step original = part.get(j);
+				Step step = new Step(original.getChange()) {
+					@Override
+					protected void buildExplanation() {
+						for(Object piece : original.getExplanation()) {
+							if(piece instanceof Algebra) explain((Algebra) piece);
+							else explain((String) piece);
+						}
+					}
+				};
+				result = node.replacement(original.getAlgebraicExpression());
+				step.setAlgebraicExpression(result.algebra());
+				//the smarts of each step aren't known, only the total
+				solution.addStep(step, j == part.length() - 1 ? part.getSmarts() : 0);
+			}
+			return result;
+		}
+		
+		/**
+		 * Finds the places algorithms could be used on a partial solution (those with smarts 
+		 * greater than 0).
+		 * @param solution The partial solution.
+		 * @param cost The estimated cost of the partial solution, or 0 if the candidates' costs 
+		 * won't be needed.
+		 * @return The candidates for the next step.
+		 */
+		private Candidates findCandidates(Solution solution, int cost) {
+			Candidates candidates = new Candidates(solution, cost);
+			Tree tree = solution.tree();
+			
+			//find the smarts of each algorithm for each of the nodes it can work on
+			for(Algorithm algorithm : algorithms) {
+				List<Tree> resources = tree.where(algorithm.ALGORITHM_LEVEL);
+				//iterate over resources for the algorithm
+				for(Tree node : resources) {
+					Algorithm.Match match = memo.get(algorithm, node.algebra());
+					if(match == null) {
+						long start = stats == null ? 0 : System.nanoTime();
+						match = algorithm.match(node.algebra());
+						if(stats != null) stats.addSmarts(algorithm, System.nanoTime() - start);
+						memo.put(algorithm, match);
+					}
+					else if(stats != null) stats.addSmartsMemoHit(algorithm);
+					if(match.getSmarts() > 0) candidates.add(algorithm, node, match);
+				}
+			}
+			if(stats != null) stats.addCandidates(candidates.size());
+			return candidates;
+		}
+		
+		/**
+		 * Takes a candidate step, creating a new partial solution with it.
+		 * @param candidates The candidates the step is from.
+		 * @param i The index of the candidate.
+		 * @param states The states that have already been reached (they're only read).
+		 * @return The new partial solution, or null if the step reaches a state that has already 
+		 * been reached.
+		 */
+		private Solution take(Candidates candidates, int i, StateTable states) {
+			Algorithm algorithm = candidates.algorithm(i);
+			Tree node = candidates.node(i);
+			//pass the algebra to the algorithm
+			long start = stats == null ? 0 : System.nanoTime();
+			Step step = algorithm.execute(candidates.match(i));
+			long executed = stats == null ? 0 : System.nanoTime();
+			//build the new tree from the old, so unchanged parts of it don't need to be built again
+			Tree tree = node.replacement(step.getChange());
+			step.setAlgebraicExpression(tree.algebra());
+			if(stats != null) {
+				stats.addExecute(algorithm, executed - start);
+				stats.addReplacement(algorithm, System.nanoTime() - executed);
+			}
+			
+			Solution solution = new Solution(candidates.solution());
+			solution.addStep(step, candidates.smarts(i));
+			solution.setTree(tree);
+			//skip this algorithm/algebra combination if it reaches a state already reached (the 
+			//solution keeps its fingerprint, so adding it to the states later doesn't work it out again)
+			if(states.contains(solution)) {
+				if(stats != null) stats.addDedupHits(1);
+				return null;
+			}
+			return solution;
+		}
+		
+	}
+	
+	/**
+	 * Estimates how costly a partial solution is, in order to tell which partial solution to work 
+	 * on next. Each step costs 10 minus the smarts of the algorithm that produced it (so smart 
+	 * steps are cheap), and to that is added the complexity of the algebra that still needs to be 
+	 * solved (the number of nodes in it; see {@link Algebra#nodeCount()}).
+	 * @param solution The partial solution to estimate the cost of.
+	 * @return The estimated cost of the solution (lower is better).
+	 */
+	private static int cost(Solution solution) {
+		return 10 * solution.length() - solution.getSmarts() + solution.getLastAlgebraicExpression().nodeCount();
+	}
+	
+	/**
+	 * Marks a solution as only partially solved, so the summary explaining so appears at the top.
+	 * @param bestSoFar The best solution found, which doesn't fully solve the problem.
+	 * @return bestSoFar.
+	 */
+	private static Solution partial(Solution bestSoFar) {
+		bestSoFar.setSummary("The problem could not be fully solved.");
+		//make the summary appear at the top
+		bestSoFar.setSummaryLast(false);
+		return bestSoFar;
+	}
+	
+	/**
+	 * Tells if an expression is fully simplified. Examples: 23(2)/(3)
+	 * Works best for fractions. If it's complicated it's unreliable and will return false
+	 * @param expr The expression to check
+	 * @return If the expr is fully simplified
+	 */
+	private static boolean isSimplified(AlgebraicParticle expr){
+		if(expr.exponent() != 1)return false;
+		else if(expr instanceof Number) return true;
+		else if(expr instanceof Variable && expr.sign()) return true;
+		else if(expr instanceof Fraction && ((Fraction)expr).isSimplified()) return true;
+		else if(expr instanceof MixedNumber && ((MixedNumber)expr).isSimplified()) return true;
+		else return false;
+	}
+	
+	/**
+	 * Tells if a given expression is first degree. A first degree expression must have exactly two  
+	 * terms, be positive, and have no exponent. Of its two terms, one must number, fraction, etc 
+	 * (which must be simplified), and the other must be a single variable, which may have a 
+	 * coefficient. The variable must not be raised to any power, and its coefficient must be 
+	 * fully simplified.
+	 * @param expr The expression to check.
+	 * @return If expr is a first degree expression (generally will look like 7x+6).
+	 */
+	static boolean isFirstDegreeExpression(Expression expr) {
+		if(expr.length() != 2 || !expr.sign() || expr.exponent() != 1) return false;
+		
+		AlgebraicParticle a = expr.get(0), b = expr.get(1);
+		//if one is a variable or variable with exponent, and the other is a number/mixed number/simplified fraction
+		if(Util.constant(a) && b instanceof Term && isVariableWithOptionalCoefficient((Term)b)) return true;
+		if(Util.constant(b) && a instanceof Term && isVariableWithOptionalCoefficient((Term)a)) return true;
+		else return false;
+	}
+	
+	/**
+	 * Tells if given algebra is a variable with (optionally) a simplified coefficient. There are 
+	 * two conditions under which this method will return true: the input is a variable with no 
+	 * exponent, or the input is a term with no exponent, containing a positive variable with no 
+	 * exponent, and a positive and simplified number, mixed number, or fraction (which can't have 
+	 * an exponent either). Examples: 2x -5.7y
+	 * @param algebra The term or variable to check.
+	 * @return If algebra is a variable with an optional coefficient.
+	 */
+	private static boolean isVariableWithOptionalCoefficient(AlgebraicParticle algebra) {
+		if(algebra.exponent() != 1)return false;
+		//if it's just a simple variable
+		if(algebra instanceof Variable) return true;
+		
+		//or it's just a simple term
+		Term t = (Term) algebra;
+		if(t.length() != 2) return false;
+		AlgebraicParticle a = t.get(0), b = t.get(1);
+		//if either has a negative sign or an exponent, return false
+		if(!a.sign() || !b.sign() || a.exponent() != 1 && b.exponent() != 1) return false;
+		//if one is a variable and the other is a number, MixedNumber, simplified fraction, etc.
+		if(Util.constant(a) && b instanceof Variable) return true;
+		if(Util.constant(b) && a instanceof Variable) return true;
+		else return false;
+	}
+	
+	/**
+	 * Tells if a given equation is solved. This means that either the left side is equal to the 
+	 * right side (an identity), or both sides are simple variables, numbers, mixed numbers, or 
+	 * simplified fractions.
+	 * @param eq The equation to check.
+	 * @return True if eq is fully solved, otherwise false.
+	 */
+	private static boolean isSolved(Equation eq){
+		//identity
+		if(eq.left().equals(eq.right()))return true;
+		//both sides simplified
+		else return isSimplified(eq.left()) && isSimplified(eq.right());
+	}
+	
+	/**
+	 * Tells if algebra is in the state specified by solveFor. For example, if solveFor is SOLVE, 
+	 * this method will return true if algebra is fully solved.
+	 * @param algebra The algebra to check.
+	 * @param solveFor What we're doing (solving/simplifying/factoring).
+	 * @return If algebra is done being worked on, as specified by solveFor.
+	 */
+	private static boolean isFinished(Algebra algebra, SolveFor solveFor) {
+		switch(solveFor) {
+		case SOLVE:
+			return algebra instanceof Equation && isSolved((Equation) algebra);
+		case SIMPLIFY:
+			return  algebra instanceof AlgebraicParticle && isSimplified((AlgebraicParticle)algebra) || algebra instanceof Expression && (isFirstDegreeExpression((Expression) algebra));
+		case FACTOR:
+			return algebra instanceof Term;
+		default: return false;
+		}
+	}
+	
+	/**
+	 * Returns the usual algorithms for each thing that can be solved for.
+	 * @param round A RoundingRule for rounding arithmetic operations.
+	 * @return The algorithms for each thing that can be solved for.
+	 */
+	private static Map<SolveFor, List<Algorithm>> getAlgorithms(RoundingRule round) {
+		EnumMap<SolveFor, List<Algorithm>> algorithms = new EnumMap<SolveFor, List<Algorithm>>(SolveFor.class);
+		for(SolveFor solveFor : SolveFor.values()) algorithms.put(solveFor, getAlgorithms(solveFor, round));
+		return algorithms;
+	}
+	
+	/**
+	 * Returns the applicable solving algorithms for the what is being solved for, e.g.,
+	 * algorithms for solving, simplifying, factoring, etc.
+	 * @param solveFor What is being solved for.
+	 * @param round A RoundingRule for rounding arithmetic operations.
+	 * @return An ArrayList of algorithms applicable for what's being solved for.
+	 */
+	private static ArrayList<Algorithm> getAlgorithms(SolveFor solveFor, RoundingRule round) {
+		ArrayList<Algorithm> algorList = new ArrayList<Algorithm>();
+		
+		//this switch is deliberately fall-through (not using break)
+		switch (solveFor){
+		case SOLVE:
+			algorList.add(new ChangeSides());
+			algorList.add(new DivideBothSides());
+			algorList.add(new MultiplyBothSides());
+		case FACTOR:
+			algorList.add(new Factor());
+		case SIMPLIFY:
+			algorList.add(new CombineLikeTerms(round));
+			algorList.add(new Multiply(round));
+			algorList.add(new Distribute(round));
+			algorList.add(new CancelFactors());
+			algorList.add(new ConvertToMixedNumber());
+			algorList.add(new Divide(round));
+			algorList.add(new InvertAndMultiply());
+		}
+		return algorList;
+	}
+	
+	/**
+	 * Holds the threads used for parallel searches. They are only created the first time a 
+	 * parallel search is run, and are daemon threads, so they don't keep the program running.
+	 */
+	private static class Workers {
+		
+		private static final ExecutorService POOL = Executors.newFixedThreadPool(
+				Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+					public Thread newThread(Runnable r) {
+						Thread thread = new Thread(r, "Solver worker");
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+		
+		/**
+		 * Runs tasks on the pool and waits for all of them to finish.
+		 * @param tasks The tasks to run.
+		 * @return The results of the tasks, in the same order as the tasks.
+		 */
+		private static <T> List<T> invokeAll(List<? extends Callable<T>> tasks) {
+			List<T> results = new ArrayList<T>(tasks.size());
+			try {
+				//invokeAll returns the futures in the same order as the tasks
+				for(Future<T> future : POOL.invokeAll(tasks)) results.add(future.get());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException(e);
+			} catch (ExecutionException e) {
+				//rethrow whatever the algorithm threw, as if we'd run it on this thread
+				if(e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+				throw new RuntimeException(e.getCause());
+			}
+			return results;
+		}
+	}
+	
+	/**
+	 * A partial solution along with its cost, ordered so that the cheapest comes first, and ties 
+	 * are broken by the order in which they were found (so searches are deterministic). It can 
+	 * also stand for the next step that hasn't been taken yet from a list of candidates, along with 
+	 * that step's estimated cost.
+	 */
+	private static class Ranked implements Comparable<Ranked> {
+		
+		private final Solution solution;
+		//the candidates the next step comes from, or null if this is a partial solution
+		private final Candidates candidates;
+		private final int cost;
+		private final long order;
+		
+		private Ranked(Solution solution, int cost, long order) {
+			this.solution = solution;
+			this.candidates = null;
+			this.cost = cost;
+			this.order = order;
+		}
+		
+		private Ranked(Candidates candidates, int cost, long order) {
+			this.solution = candidates.solution();
+			this.candidates = candidates;
+			this.cost = cost;
+			this.order = order;
+		}
+		
+		public int compareTo(Ranked other) {
+			if(this.cost != other.cost) return this.cost < other.cost ? -1 : 1;
+			return this.order < other.order ? -1 : this.order == other.order ? 0 : 1;
+		}
+	}
+	
+}
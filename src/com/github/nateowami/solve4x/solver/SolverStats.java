@@ -0,0 +1,277 @@
+/*
+    Solve4x - An algebra solver that shows its work
+    Copyright (C) 2015  Nathaniel Paulus
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.nateowami.solve4x.solver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Statistics about a search for a solution, to help find out why a problem is slow to solve. A 
+ * SolverStats is filled in by {@link SolverEngine} as it searches, and may be updated by several 
+ * threads at once (during a parallel search). The getters return copies, so they can be called 
+ * at any time.
+ * 
+ * An iteration is one level of a breadth-first or beam search, or one expansion of a best-first 
+ * search. The searches that simplify parts of the problem on their own (see 
+ * {@link SolverEngine.Options#decompose(boolean)}) are counted as well, so their iterations are 
+ * mixed in with those of the main search.
+ * @author Nateowami
+ */
+public class SolverStats {
+	
+	//the number of partial solutions expanded in each iteration
+	private final ArrayList<Integer> expanded = new ArrayList<Integer>();
+	//the number of partial solutions waiting to be expanded after each iteration
+	private final ArrayList<Integer> frontier = new ArrayList<Integer>();
+	//the number of new states thrown away because they had already been reached
+	private long dedupHits = 0;
+	//the number of places an algorithm could be used (with smarts greater than 0)
+	private long candidates = 0;
+	//the time spent in each algorithm
+	private final Map<Class<? extends Algorithm>, AlgorithmStats> algorithms = new LinkedHashMap<Class<? extends Algorithm>, AlgorithmStats>();
+	
+	/**
+	 * Records an iteration of the search.
+	 * @param expanded The number of partial solutions expanded.
+	 * @param frontier The number of partial solutions waiting to be expanded afterwards.
+	 */
+	synchronized void addIteration(int expanded, int frontier) {
+		this.expanded.add(expanded);
+		this.frontier.add(frontier);
+	}
+	
+	/**
+	 * Records new states that were thrown away because they had already been reached.
+	 * @param count The number of states.
+	 */
+	synchronized void addDedupHits(int count) {
+		this.dedupHits += count;
+	}
+	
+	/**
+	 * Records places an algorithm could be used.
+	 * @param count The number of places.
+	 */
+	synchronized void addCandidates(int count) {
+		this.candidates += count;
+	}
+	
+	/**
+	 * Records a call to {@link Algorithm#smarts(Algebra)}.
+	 * @param algorithm The algorithm.
+	 * @param nanos The time the call took, in nanoseconds.
+	 */
+	synchronized void addSmarts(Algorithm algorithm, long nanos) {
+		AlgorithmStats stats = statsFor(algorithm);
+		stats.smartsCalls++;
+		stats.smartsNanos += nanos;
+	}
+	
+	/**
+	 * Records smarts that didn't need to be worked out, because they had already been worked out 
+	 * for the same algebra.
+	 * @param algorithm The algorithm.
+	 */
+	synchronized void addSmartsMemoHit(Algorithm algorithm) {
+		statsFor(algorithm).smartsMemoHits++;
+	}
+	
+	/**
+	 * Records a call to {@link Algorithm#execute(Algebra)}.
+	 * @param algorithm The algorithm.
+	 * @param nanos The time the call took, in nanoseconds.
+	 */
+	synchronized void addExecute(Algorithm algorithm, long nanos) {
+		AlgorithmStats stats = statsFor(algorithm);
+		stats.executeCalls++;
+		stats.executeNanos += nanos;
+	}
+	
+	/**
+	 * Records a call to {@link Tree#replacement(Algebra)} for the result of an algorithm.
+	 * @param algorithm The algorithm whose result was put in place.
+	 * @param nanos The time the call took, in nanoseconds.
+	 */
+	synchronized void addReplacement(Algorithm algorithm, long nanos) {
+		AlgorithmStats stats = statsFor(algorithm);
+		stats.replacementCalls++;
+		stats.replacementNanos += nanos;
+	}
+	
+	/**
+	 * Finds the stats for an algorithm, creating them if needed. Must be called while holding 
+	 * the lock.
+	 * @param algorithm The algorithm.
+	 * @return The stats for the algorithm's class.
+	 */
+	private AlgorithmStats statsFor(Algorithm algorithm) {
+		AlgorithmStats stats = algorithms.get(algorithm.getClass());
+		if(stats == null) {
+			stats = new AlgorithmStats();
+			algorithms.put(algorithm.getClass(), stats);
+		}
+		return stats;
+	}
+	
+	/**
+	 * @return The number of iterations the search took.
+	 */
+	public synchronized int getIterations() {
+		return expanded.size();
+	}
+	
+	/**
+	 * @return The number of partial solutions expanded in each iteration.
+	 */
+	public synchronized List<Integer> getExpandedPerIteration() {
+		return Collections.unmodifiableList(new ArrayList<Integer>(expanded));
+	}
+	
+	/**
+	 * @return The number of partial solutions waiting to be expanded after each iteration.
+	 */
+	public synchronized List<Integer> getFrontierSizes() {
+		return Collections.unmodifiableList(new ArrayList<Integer>(frontier));
+	}
+	
+	/**
+	 * @return The number of new states that were thrown away because they had already been reached.
+	 */
+	public synchronized long getDedupHits() {
+		return dedupHits;
+	}
+	
+	/**
+	 * @return The number of places an algorithm could be used (with smarts greater than 0).
+	 */
+	public synchronized long getCandidates() {
+		return candidates;
+	}
+	
+	/**
+	 * @return The stats for each kind of algorithm, in the order they were first used.
+	 */
+	public synchronized Map<Class<? extends Algorithm>, AlgorithmStats> getAlgorithmStats() {
+		Map<Class<? extends Algorithm>, AlgorithmStats> copy = new LinkedHashMap<Class<? extends Algorithm>, AlgorithmStats>();
+		for(Map.Entry<Class<? extends Algorithm>, AlgorithmStats> entry : algorithms.entrySet()) {
+			copy.put(entry.getKey(), new AlgorithmStats(entry.getValue()));
+		}
+		return Collections.unmodifiableMap(copy);
+	}
+	
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public synchronized String toString() {
+		StringBuilder s = new StringBuilder("SolverStats [expanded=" + expanded + ", frontier=" + frontier 
+				+ ", dedupHits=" + dedupHits + ", candidates=" + candidates);
+		for(Map.Entry<Class<? extends Algorithm>, AlgorithmStats> entry : algorithms.entrySet()) {
+			s.append(", ").append(entry.getKey().getSimpleName()).append('=').append(entry.getValue());
+		}
+		return s.append(']').toString();
+	}
+	
+	/**
+	 * The number of calls to, and time spent in, each part of one kind of algorithm.
+	 */
+	public static class AlgorithmStats {
+		
+		private long smartsCalls, smartsNanos, smartsMemoHits;
+		private long executeCalls, executeNanos;
+		private long replacementCalls, replacementNanos;
+		
+		private AlgorithmStats() {}
+		
+		private AlgorithmStats(AlgorithmStats other) {
+			this.smartsCalls = other.smartsCalls;
+			this.smartsNanos = other.smartsNanos;
+			this.smartsMemoHits = other.smartsMemoHits;
+			this.executeCalls = other.executeCalls;
+			this.executeNanos = other.executeNanos;
+			this.replacementCalls = other.replacementCalls;
+			this.replacementNanos = other.replacementNanos;
+		}
+		
+		/**
+		 * @return The number of calls to {@link Algorithm#smarts(Algebra)}.
+		 */
+		public long getSmartsCalls() {
+			return smartsCalls;
+		}
+		
+		/**
+		 * @return The time spent in {@link Algorithm#smarts(Algebra)}, in nanoseconds.
+		 */
+		public long getSmartsNanos() {
+			return smartsNanos;
+		}
+		
+		/**
+		 * @return The number of times the smarts of the algorithm were already known for the 
+		 * algebra, so {@link Algorithm#smarts(Algebra)} didn't need to be called.
+		 */
+		public long getSmartsMemoHits() {
+			return smartsMemoHits;
+		}
+		
+		/**
+		 * @return The number of calls to {@link Algorithm#execute(Algebra)}.
+		 */
+		public long getExecuteCalls() {
+			return executeCalls;
+		}
+		
+		/**
+		 * @return The time spent in {@link Algorithm#execute(Algebra)}, in nanoseconds.
+		 */
+		public long getExecuteNanos() {
+			return executeNanos;
+		}
+		
+		/**
+		 * @return The number of calls to {@link Tree#replacement(Algebra)} for the results 
+		 * of the algorithm.
+		 */
+		public long getReplacementCalls() {
+			return replacementCalls;
+		}
+		
+		/**
+		 * @return The time spent in {@link Tree#replacement(Algebra)} for the results of the 
+		 * algorithm, in nanoseconds.
+		 */
+		public long getReplacementNanos() {
+			return replacementNanos;
+		}
+		
+		/* (non-Javadoc)
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString() {
+			return "[smarts=" + smartsCalls + "/" + smartsNanos / 1000 + "µs, memoHits=" + smartsMemoHits + ", execute=" + executeCalls + "/" 
+					+ executeNanos / 1000 + "µs, replacement=" + replacementCalls + "/" + replacementNanos / 1000 + "µs]";
+		}
+		
+	}
+	
+}
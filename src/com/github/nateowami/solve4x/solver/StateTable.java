@@ -0,0 +1,169 @@
+/*
+    Solve4x - An algebra solver that shows its work
+    Copyright (C) 2015  Nathaniel Paulus
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.nateowami.solve4x.solver;
+
+/**
+ * Remembers which states (algebra) the Solver has already reached. Instead of keeping the 
+ * algebra itself, only a 64-bit fingerprint of its structure is kept, in an open-addressing table 
+ * of longs. This keeps the table small and lookups cheap, since the algebra doesn't have to be 
+ * hashed and compared deeply on every lookup (only fingerprinted once). Two different states 
+ * could in theory have the same fingerprint, so the table can optionally keep the algebra as 
+ * well, and compare it to tell such states apart. States that differ only in the order of terms 
+ * or factors are treated as the same state (see {@link CanonicalForm}).
+ * 
+ * A StateTable may be read by several threads at once, but must not be added to while any 
+ * other thread is using it.
+ * @author Nateowami
+ */
+class StateTable {
+	
+	//marks an empty slot (fingerprints are never 0)
+	private static final long EMPTY = 0;
+	
+	//the fingerprints, placed at the slot their fingerprint points to, or the next free slot
+	private long[] fingerprints = new long[64];
+	//the algebra for each fingerprint, or null if we're not verifying
+	private Algebra[] states;
+	//the number of states in the table
+	private int size = 0;
+	
+	/**
+	 * Creates a new StateTable that doesn't check for two states with the same fingerprint.
+	 */
+	StateTable() {
+		this(false);
+	}
+	
+	/**
+	 * Creates a new StateTable.
+	 * @param verify True to keep the algebra of each state so that different states with the same 
+	 * fingerprint can be told apart.
+	 */
+	StateTable(boolean verify) {
+		if(verify) states = new Algebra[fingerprints.length];
+	}
+	
+	/**
+	 * Tells if the given state has been added to this table.
+	 * @param state The state to look for.
+	 * @return True if the state is in this table.
+	 */
+	boolean contains(Algebra state) {
+		return find(fingerprint(state), state) >= 0;
+	}
+	
+	/**
+	 * Tells if the last state of a partial solution has been added to this table. The state 
+	 * isn't fingerprinted again if the solution already has its fingerprint.
+	 * @param solution The partial solution whose last state to look for.
+	 * @return True if the state is in this table.
+	 */
+	boolean contains(Solution solution) {
+		return find(solution.fingerprint(), solution.getLastAlgebraicExpression()) >= 0;
+	}
+	
+	/**
+	 * Adds a state to this table if it isn't already in it.
+	 * @param state The state to add.
+	 * @return True if the state was added, false if it was already in the table.
+	 */
+	boolean add(Algebra state) {
+		return add(fingerprint(state), state);
+	}
+	
+	/**
+	 * Adds the last state of a partial solution to this table if it isn't already in it. The 
+	 * state isn't fingerprinted again if the solution already has its fingerprint.
+	 * @param solution The partial solution whose last state to add.
+	 * @return True if the state was added, false if it was already in the table.
+	 */
+	boolean add(Solution solution) {
+		return add(solution.fingerprint(), solution.getLastAlgebraicExpression());
+	}
+	
+	/**
+	 * Adds a state to this table if it isn't already in it.
+	 * @param fingerprint The fingerprint of the state.
+	 * @param state The state to add.
+	 * @return True if the state was added, false if it was already in the table.
+	 */
+	private boolean add(long fingerprint, Algebra state) {
+		int slot = find(fingerprint, state);
+		if(slot >= 0) return false;
+		
+		slot = -slot - 1;
+		fingerprints[slot] = fingerprint;
+		if(states != null) states[slot] = state;
+		//keep the table at most half full so probing stays short
+		if(++size * 2 > fingerprints.length) grow();
+		return true;
+	}
+	
+	/**
+	 * @return The number of states in this table.
+	 */
+	int size() {
+		return size;
+	}
+	
+	/**
+	 * Finds the slot holding a state.
+	 * @param fingerprint The fingerprint of the state.
+	 * @param state The state.
+	 * @return The slot holding the state if it's in the table, otherwise -(slot + 1), where slot is 
+	 * the empty slot where it belongs.
+	 */
+	private int find(long fingerprint, Algebra state) {
+		int mask = fingerprints.length - 1;
+		for(int slot = (int) fingerprint & mask; ; slot = (slot + 1) & mask) {
+			long f = fingerprints[slot];
+			if(f == EMPTY) return -slot - 1;
+			if(f == fingerprint && (states == null || CanonicalForm.equivalent(states[slot], state))) return slot;
+		}
+	}
+	
+	/**
+	 * Doubles the size of the table, moving every fingerprint to its new slot.
+	 */
+	private void grow() {
+		long[] oldFingerprints = fingerprints;
+		Algebra[] oldStates = states;
+		fingerprints = new long[oldFingerprints.length * 2];
+		if(oldStates != null) states = new Algebra[fingerprints.length];
+		
+		int mask = fingerprints.length - 1;
+		for(int i = 0; i < oldFingerprints.length; i++) {
+			if(oldFingerprints[i] == EMPTY) continue;
+			int slot = (int) oldFingerprints[i] & mask;
+			while(fingerprints[slot] != EMPTY) slot = (slot + 1) & mask;
+			fingerprints[slot] = oldFingerprints[i];
+			if(oldStates != null) states[slot] = oldStates[i];
+		}
+	}
+	
+	/**
+	 * Calculates the fingerprint of a state, which is the fingerprint of its canonical form (see 
+	 * {@link CanonicalForm}). The fingerprint is never 0.
+	 * @param a The state to fingerprint.
+	 * @return The fingerprint of a.
+	 */
+	static long fingerprint(Algebra a) {
+		return CanonicalForm.fingerprint(a);
+	}
+	
+}
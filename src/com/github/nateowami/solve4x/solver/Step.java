@@ -18,15 +18,34 @@
 package com.github.nateowami.solve4x.solver;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Represents a single step in solving or simplifying an equation or expression.
- * Each step tracks difficulty, explanation, and an equation.
+ * Each step tracks difficulty, explanation, and an equation. Only the step itself (and the 
+ * solver) can change it, so once it's part of a {@link Solution} it can be shared safely.
+ * 
+ * Most steps are never shown (the solver tries many steps for each one it keeps), so a step may 
+ * put off building its explanation until it's asked for: instead of calling explain() right away, 
+ * create the step as an anonymous subclass that calls explain() from 
+ * {@link #buildExplanation()}. For example:
+ * <pre>
+ * Step step = new Step(result) {
+ *     protected void buildExplanation() {
+ *         explain("Simplify ", frac, " to get ", result);
+ *     }
+ * };
+ * </pre>
  * @author Nateowami
  */
 public class Step {
 	
 	private final ArrayList<Object> explanation = new ArrayList<Object>();
+	//what getExplanation() hands out, so the explanation can't be changed from outside
+	private final List<Object> explanationView = Collections.unmodifiableList(explanation);
+	//whether buildExplanation() has been called yet
+	private boolean explained = false;
 	private Algebra algebraicExpression;
 	private final Algebra change;
 	
@@ -39,13 +58,26 @@ public class Step {
 	}
 	
 	/**
-	 * Returns an explanation for the step, in an ArrayList&lt;Object&gt;. Each object is
+	 * Returns an explanation for the step, in a List&lt;Object&gt;. Each object is
 	 * guaranteed to be of type String or AlgebraicParticle. That way strings and algebra
-	 * can be rendered together later (algebra can't always be rendered nicely as strings).
-	 * @return the explanation for this step.
+	 * can be rendered together later (algebra can't always be rendered nicely as strings). The 
+	 * first call builds the explanation (see {@link #buildExplanation()}).
+	 * @return the explanation for this step (it can't be modified).
 	 */
-	public ArrayList<Object> getExplanation() {
-		return explanation;
+	public synchronized List<Object> getExplanation() {
+		if(!explained) {
+			explained = true;
+			buildExplanation();
+		}
+		return explanationView;
+	}
+	
+	/**
+	 * Builds the explanation for this step by calling explain() and list(). It's called the first 
+	 * time the explanation is asked for, so steps that are never shown never build one. Does 
+	 * nothing by default; override it to put off explaining a step until it's needed.
+	 */
+	protected void buildExplanation() {
 	}
 	
 	/**
@@ -55,7 +87,7 @@ public class Step {
 	 * @throws IllegalArgumentException if the equation has already been set (it should only be set 
 	 * once).
 	 */
-	public void setAlgebraicExpression(Algebra algebra) {
+	void setAlgebraicExpression(Algebra algebra) {
 		if(this.algebraicExpression != null) throw new IllegalArgumentException("Algebraic expression has already been set.");
 		else this.algebraicExpression = algebra;
 	}
@@ -79,7 +111,7 @@ public class Step {
 	 * @param s The string to append to the explanation.
 	 * @return Returns this so you can chain methods.
 	 */
-	public Step explain(String s){
+	protected Step explain(String s){
 		this.explanation.add(s);
 		return this;
 	}
@@ -91,17 +123,33 @@ public class Step {
 	 * @param a The Algebra to append.
 	 * @return Returns this so you can chain methods.
 	 */
-	public Step explain(Algebra a){
+	protected Step explain(Algebra a){
 		this.explanation.add(a);
 		return this;
 	}
 	
+	/**
+	 * Appends each of the given strings and pieces of algebra to the explanation, in order, so 
+	 * an explanation can be built in one call, e.g. explain("Simplify ", frac, " to get ", result).
+	 * @param parts The strings and algebra to append.
+	 * @return Returns this so you can chain methods.
+	 * @throws IllegalArgumentException If a part is neither a String nor Algebra.
+	 */
+	protected Step explain(Object... parts){
+		for(Object part : parts) {
+			if(part instanceof String) explain((String)part);
+			else if(part instanceof Algebra) explain((Algebra)part);
+			else throw new IllegalArgumentException("Cannot explain " + part + ". Expected a String or Algebra.");
+		}
+		return this;
+	}
+	
 	/* (non-Javadoc)
 	 * @see java.lang.Object#toString()
 	 */
 	@Override
 	public String toString() {
-		return "Step [explanation=" + explanation + ", algebraicExpression="
+		return "Step [explanation=" + getExplanation() + ", algebraicExpression="
 				+ algebraicExpression + ", change=" + change + "]";
 	}
 	
@@ -113,7 +161,7 @@ public class Step {
 	 * @param list The list to add to the explanation.
 	 * @return Returns this so you can chain methods.
 	 */
-	public Step list(ArrayList<AlgebraicParticle> list) {
+	protected Step list(ArrayList<AlgebraicParticle> list) {
 		return this.list(list.toArray(new AlgebraicParticle[list.size()]));
 	}
 	
@@ -125,7 +173,7 @@ public class Step {
 	 * @param list The list to add to the explanation.
 	 * @return Returns this so you can chain methods.
 	 */
-	public Step list(AlgebraicParticle[] list) {
+	protected Step list(AlgebraicParticle[] list) {
 		if(list.length == 1) explain(list[0]);
 		else if (list.length == 2) explain(list[0]).explain(" and ").explain(list[1]);
 		else {
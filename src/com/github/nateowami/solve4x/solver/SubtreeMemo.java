@@ -0,0 +1,82 @@
+/*
+    Solve4x - An algebra solver that shows its work
+    Copyright (C) 2015  Nathaniel Paulus
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.nateowami.solve4x.solver;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers how pieces of algebra were simplified, so that when the same piece of algebra turns 
+ * up again (in another branch of a search, or another search altogether) the steps that simplified 
+ * it can be used again instead of searching for them again. For example, after moving terms from 
+ * one side of an equation to the other, the side that wasn't changed still needs the same steps 
+ * to simplify it. Algebra is looked up by what it is (see {@link Algebra#equals(Object)}), since 
+ * the steps need to fit it exactly. Only a limited number of results are kept; when the memo is 
+ * full, the least recently used result is forgotten.
+ * 
+ * A SubtreeMemo may be used by several threads at once.
+ * @author Nateowami
+ */
+class SubtreeMemo {
+	
+	//the simplification of each piece of algebra, with the least recently used first
+	private final LinkedHashMap<Algebra, Solution> memo;
+	
+	/**
+	 * Creates a new SubtreeMemo.
+	 * @param capacity The number of results to keep (must be at least 1).
+	 * @throws IllegalArgumentException If capacity is less than 1.
+	 */
+	SubtreeMemo(final int capacity) {
+		if(capacity < 1) throw new IllegalArgumentException("Capacity must be at least 1, but was " + capacity);
+		this.memo = new LinkedHashMap<Algebra, Solution>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Algebra, Solution> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+	
+	/**
+	 * Finds the remembered simplification of a piece of algebra.
+	 * @param algebra The algebra.
+	 * @return The solution that simplified it, or null if it hasn't been simplified before. The 
+	 * solution may not have simplified it completely.
+	 */
+	synchronized Solution get(Algebra algebra) {
+		return memo.get(algebra);
+	}
+	
+	/**
+	 * Remembers the simplification of a piece of algebra.
+	 * @param algebra The algebra.
+	 * @param solution The solution that simplified it (must not be modified afterwards).
+	 */
+	synchronized void put(Algebra algebra, Solution solution) {
+		memo.put(algebra, solution);
+	}
+	
+	/**
+	 * @return The number of results remembered.
+	 */
+	synchronized int size() {
+		return memo.size();
+	}
+	
+}
@@ -29,7 +29,7 @@ import com.github.nateowami.solve4x.Solve4x;
 public class Term extends AlgebraicCollection{
 	
 	//the list of variables in this term
-	private ArrayList<AlgebraicParticle> parts = new ArrayList<AlgebraicParticle>();
+	private final ArrayList<AlgebraicParticle> parts;
 	
 	/**
 	 * Creates a new term from a String
@@ -37,6 +37,7 @@ public class Term extends AlgebraicCollection{
 	 */
 	protected Term(String s) {
 		String original = s; //for debugging purposes
+		parts = new ArrayList<AlgebraicParticle>();
 		//loop backwards to find a match
 		//-1 from s.length() because we should not try to parse the whole thing the first time
 		for(int i = s.length()-1; i > 0; i--){
@@ -57,7 +58,8 @@ public class Term extends AlgebraicCollection{
 	/**
 	 * Constructs a new Term.
 	 * @param sign The sign of the new term.
-	 * @param parts The parts (i.e. algebraic particles) of the term.
+	 * @param parts The parts (i.e. algebraic particles) of the term. The list becomes part of the 
+	 * term, so it must not be changed afterwards.
 	 * @param exponent The exponent of the term.
 	 */
 	public Term(boolean sign, ArrayList<AlgebraicParticle> parts, int exponent) {
@@ -205,14 +207,26 @@ public class Term extends AlgebraicCollection{
 				);
 	}
 	
+	/* (non-Javadoc)
+	 * @see com.github.nateowami.solve4x.solver.AlgebraicParticle#copy(boolean, int)
+	 */
+	@Override
+	protected Term copy(boolean sign, int exponent) {
+		return new Term(sign, this.parts, exponent);
+	}
+	
 	/* (non-Javadoc)
 	 * @see java.lang.Object#hashCode()
 	 */
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = super.hashCode();
-		result = prime * result + ((parts == null) ? 0 : parts.hashCode());
+		int result = hash;
+		if(result == 0) {
+			final int prime = 31;
+			result = super.hashCode();
+			result = prime * result + ((parts == null) ? 0 : parts.hashCode());
+			hash = result;
+		}
 		return result;
 	}
 	
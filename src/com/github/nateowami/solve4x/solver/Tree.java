@@ -20,21 +20,36 @@ package com.github.nateowami.solve4x.solver;
 import static com.github.nateowami.solve4x.solver.Util.*;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Represents an algebraic hierarchy. Unlike the Algebra class, each node of a Tree (which nodes 
  * are just trees themselves) points back to its parent. Thus, from a single node it is possible to 
  * determine the entire structure. Each node of the tree stands for an instance of Algebra. Note 
  * that a Tree uses trees as nodes, so the terms are interchangeable.
+ * 
+ * Behind the scenes, the structure of the algebra (each piece of algebra and its children) is 
+ * kept separately from the position of each node in a particular tree, and is never changed once 
+ * built. That way a tree derived from another with {@link #replacement(Algebra)} shares the 
+ * structure of everything that didn't change, and only the path from the replaced node to the 
+ * top is built again. The structure of each node is only worked out when it's first needed. The 
+ * algebra of each node is interned (see {@link Interner}), so equal algebra in different trees, 
+ * even ones that weren't derived from one another, is the same instance.
  * @author Nateowami
  */
 public class Tree {
 	
-	private final Algebra alg;
-    private Tree parent;
-    private final ArrayList<Tree> children;
+	private final Node node;
+    private final Tree parent;
+    //the index of this node among its parent's children (-1 if it has no parent)
+    private final int position;
+    //the child nodes, created when first needed (null until then)
+    private volatile Tree[] children;
+    //the nodes of this tree by class, built the first time where() is called (null until then)
+    private volatile Index index;
 	
     /**
      * Constructs a new tree from given algebra. Each node of the tree contains a piece of algebra, 
@@ -42,16 +57,19 @@ public class Tree {
      * @param algebra The algebra from which to construct the tree.
      */
 	public Tree(Algebra algebra) {
-		this.alg = algebra;
-		this.parent = null;
-		ArrayList<AlgebraicParticle> algebraicChildren = children(algebra);
-		if(algebraicChildren == null) this.children = null;
-		else {
-			this.children = new ArrayList<Tree>(algebraicChildren.size());
-			for(AlgebraicParticle a : algebraicChildren) {
-				this.children.add(constructTreeWithParent(a, this));
-			}
-		}
+		this(new Node(Interner.intern(algebra)), null, -1);
+	}
+	
+	/**
+	 * Constructs a node of a tree.
+	 * @param node The structure of the algebra of the node.
+	 * @param parent The parent node, or null if this is the top.
+	 * @param position The index of this node among its parent's children (-1 if it has no parent).
+	 */
+	private Tree(Node node, Tree parent, int position) {
+		this.node = node;
+		this.parent = parent;
+		this.position = position;
 	}
 	
 	/**
@@ -59,19 +77,47 @@ public class Tree {
 	 * algebra. While this method leave the tree untouched, the simplest way to think of this is 
 	 * that the tree swaps this node for a new node constructed from the specified algebra and 
 	 * updates all affected parent and child nodes (constructing new algebra for each node) and 
-	 * returns the super parent's algebra. It then resets the tree to its previous state. 
+	 * returns the super parent's algebra. It then resets the tree to its previous state. Only the 
+	 * algebra on the path from this node up to the top is constructed; everything else is shared 
+	 * with the original algebra.
 	 * @param alg The algebra to replace this node with.
 	 */
 	public Algebra considerReplacement(Algebra algebra) {
-		if(this.parent == null) return algebra;
-		else return considerReplacement(this.parent, this.parent.indexOf(this), algebra);
+		for(Tree node = this; node.parent != null; node = node.parent) {
+			algebra = withChild(node.parent.node.alg, node.position, (AlgebraicParticle) algebra);
+		}
+		return algebra;
+	}
+	
+	/**
+	 * Works like {@link #considerReplacement(Algebra)}, but returns the whole new tree instead of 
+	 * just its algebra. The new tree shares the structure of every node that isn't on the path 
+	 * from this node to the top, so building it costs no more than considerReplacement.
+	 * @param algebra The algebra to replace this node with.
+	 * @return The top node of the new tree.
+	 */
+	public Tree replacement(Algebra algebra) {
+		if(parent == null) return new Tree(algebra);
+		Node replaced = new Node(algebra);
+		for(Tree tree = this; tree.parent != null; tree = tree.parent) {
+			Node parent = tree.parent.node;
+			Algebra updated = withChild(parent.alg, tree.position, (AlgebraicParticle) replaced.alg);
+			//the new algebra has the same children as the old, except for the replaced one
+			Node[] children = parent.children().clone();
+			children[tree.position] = replaced;
+			replaced = new Node(updated, children);
+		}
+		//interning the top interns the whole path; it comes back as the same instance unless 
+		//something on the path was already interned, in which case the path's structure is stale
+		Algebra top = Interner.intern(replaced.alg);
+		return new Tree(top == replaced.alg ? replaced : new Node(top), null, -1);
 	}
 	
 	/**
 	 * @return The number of children nodes this tree has.
 	 */
 	public int length() {
-		return this.children.size();
+		return this.node.children().length;
 	}
 	
 	/**
@@ -80,71 +126,131 @@ public class Tree {
 	 * @return The node at the specified index.
 	 */
 	public Tree get(int index) {
-		//if it's a child it must be an AlgebraicParticle
-		return this.children.get(index);
+		return children()[index];
 	}
 	
 	/** 
 	 * @return the algebra this node represents.
 	 */
 	public Algebra algebra() {
-		return this.alg;
+		return this.node.alg;
 	}
 	
 	/**
 	 * Returns a list of all nodes of this tree that represent instances of the specified class. 
+	 * The first call indexes every node of the tree by class, so later calls don't need to go 
+	 * through the whole tree again.
 	 * @param c The class to limit nodes to.
-	 * @return A list of nodes that represent algebra of the specified class.
+	 * @return A list of nodes that represent algebra of the specified class (must not be modified).
 	 */
 	public List<Tree> where(Class<? extends Algebra> c){
-		List<Tree> list = new ArrayList<Tree>();
-		if(c.isInstance(this.alg)) list.add(this);
-		if(this.children != null) for(Tree tree : this.children) {
-			list.addAll(tree.where(c));
+		Index index = this.index;
+		if(index == null) this.index = index = new Index(this);
+		
+		//algebra is always an instance of a concrete class, so those are indexed directly
+		List<Tree> list = index.byClass.get(c);
+		if(list != null) return list;
+		
+		//otherwise c is a superclass (or no node is an instance of it), so check every node
+		list = new ArrayList<Tree>();
+		for(Tree node : index.nodes) if(c.isInstance(node.algebra())) list.add(node);
+		return Collections.unmodifiableList(list);
+	}
+	
+	/**
+	 * @return The child nodes of this node, creating them if this is the first time they're needed.
+	 */
+	private Tree[] children() {
+		Tree[] children = this.children;
+		if(children == null) {
+			Node[] nodes = this.node.children();
+			children = new Tree[nodes.length];
+			for(int i = 0; i < nodes.length; i++) children[i] = new Tree(nodes[i], this, i);
+			this.children = children;
 		}
-		return list;
+		return children;
 	}
 	
 	/**
-	 * Calculates what the topmost algebra in this tree would be if the specified tree's child node 
-	 * specified by index were replaced by a node constructed form the specified algebra. See 
-	 * {@link com.github.nateowami.solve4x.solver.Tree#considerReplacement(Algebra)} for a fuller 
-	 * explanation of its purpose and what it does. This method is the internal implementation, 
-	 * while the referenced method is the public-facing method.
-	 * @param tree The tree whose node needs to be "virtually" replaced.
-	 * @param index The index of the node to be "virtually" replaced.
-	 * @param algebra The algebra to "swap in" at the given index.
-	 * @return An piece of algebra that represents what the topmost node of the tree would be like 
-	 * if the specified tree's child given by the specified index were replaced by a node that 
-	 * represented the given algebra, and all parents were updated to reflect the change.
+	 * The structure of a piece of algebra: the algebra and the structure of each of its children. 
+	 * Unlike a Tree, it doesn't know where it is, so it can be shared by any number of trees. The 
+	 * children are only worked out the first time they're needed.
 	 */
-	private static Algebra considerReplacement(Tree tree, int index, Algebra algebra) {
-		//the tree's top node will call this and tree will end up null, which means time to return 
-		//just what we were given
-		if(tree == null) return algebra;
+	private static final class Node {
+		
+		private static final Node[] NO_CHILDREN = new Node[0];
+		
+		private final Algebra alg;
+		//null until needed
+		private volatile Node[] children;
+		
+		private Node(Algebra alg) {
+			this.alg = alg;
+		}
 		
-		//construct a list of all the tree's children
-		ArrayList<AlgebraicParticle> list = new ArrayList<AlgebraicParticle>(tree.children.size());
-		for(int i = 0; i < tree.children.size(); i++) {
-			//if it's the algebra we're swapping, put it in, otherwise copy from the list
-			if(index == i) list.add((AlgebraicParticle)algebra);
-			else list.add((AlgebraicParticle)tree.children.get(i).alg);
+		private Node(Algebra alg, Node[] children) {
+			this.alg = alg;
+			this.children = children;
+		}
+		
+		/**
+		 * @return The structure of each of the children of this node's algebra (must not be modified).
+		 */
+		private Node[] children() {
+			Node[] children = this.children;
+			if(children == null) {
+				ArrayList<AlgebraicParticle> algebraicChildren = Tree.children(alg);
+				if(algebraicChildren == null) children = NO_CHILDREN;
+				else {
+					children = new Node[algebraicChildren.size()];
+					for(int i = 0; i < children.length; i++) children[i] = new Node(algebraicChildren.get(i));
+				}
+				this.children = children;
+			}
+			return children;
 		}
 		
-		Algebra updated = constructAlgebra(list, tree.alg);
-		return considerReplacement(tree.parent, tree.parent == null ? -1 : tree.parent.indexOf(tree), updated);
 	}
 	
 	/**
-	 * Constructs a tree and sets its parent to the specified value.
-	 * @param algebra The algebra from which to construct the tree/node.
-	 * @param parent The parent tree/node of the newly constructed node.
-	 * @return A new tree using the specified algebra and parent.
+	 * Every node of a tree, all in order (a node comes before its children, and children 
+	 * come in order), and grouped by the class of their algebra. It's built in a single pass over 
+	 * the tree and can't be changed afterwards.
 	 */
-	private Tree constructTreeWithParent(Algebra algebra, Tree parent) {
-		Tree tree = new Tree(algebra);
-		tree.parent = parent;
-		return tree;
+	private static class Index {
+		
+		private final List<Tree> nodes;
+		private final Map<Class<? extends Algebra>, List<Tree>> byClass;
+		
+		private Index(Tree tree) {
+			ArrayList<Tree> nodes = new ArrayList<Tree>();
+			HashMap<Class<? extends Algebra>, List<Tree>> byClass = new HashMap<Class<? extends Algebra>, List<Tree>>();
+			add(tree, nodes, byClass);
+			for(Map.Entry<Class<? extends Algebra>, List<Tree>> entry : byClass.entrySet()) {
+				entry.setValue(Collections.unmodifiableList(entry.getValue()));
+			}
+			this.nodes = Collections.unmodifiableList(nodes);
+			this.byClass = byClass;
+		}
+		
+		/**
+		 * Adds a node and all its descendants to the index.
+		 * @param tree The node to add.
+		 * @param nodes The list of every node.
+		 * @param byClass The lists of nodes for each class.
+		 */
+		private static void add(Tree tree, List<Tree> nodes, Map<Class<? extends Algebra>, List<Tree>> byClass) {
+			nodes.add(tree);
+			Class<? extends Algebra> c = tree.algebra().getClass();
+			List<Tree> list = byClass.get(c);
+			if(list == null) {
+				list = new ArrayList<Tree>();
+				byClass.put(c, list);
+			}
+			list.add(tree);
+			for(Tree child : tree.children()) add(child, nodes, byClass);
+		}
+		
 	}
 	
 	/**
@@ -153,7 +259,7 @@ public class Tree {
 	 * @param a The algebra to decompose.
 	 * @return The given algebra as an ArrayList.
 	 */
-	private ArrayList<AlgebraicParticle> children(Algebra a) {
+	static ArrayList<AlgebraicParticle> children(Algebra a) {
 		if(a instanceof Equation) return list(((Equation)a).left(), ((Equation)a).right());
 		if(a instanceof AlgebraicCollection) return ((AlgebraicCollection)a).toList();
 		if(a instanceof Fraction) return list(((Fraction)a).getTop(), ((Fraction)a).getBottom());
@@ -163,54 +269,39 @@ public class Tree {
 	}
 	
 	/**
-	 * Returns the index of the specified node. If it is not direct child of this node -1 will be 
-	 * returned.
-	 * @param tree The child node the index of which you want to find.
-	 * @return The index of the given tree, or -1 if it is not a direct child of this tree.
+	 * Constructs algebra that is the same as the given algebra, except that one of its children 
+	 * (as given by {@link com.github.nateowami.solve4x.solver.Tree#children(Algebra)}) is replaced. 
+	 * The other children are reused, not copied. Note that the type of the returned object is not 
+	 * necessarily the same as the type of the <code>old</code> parameter. For example, if the 
+	 * fraction in a MixedNumber were replaced with a single number, this would return an 
+	 * expression with two number terms.
+	 * @param old The algebra whose child is being replaced.
+	 * @param index The index of the child to replace.
+	 * @param child The new child.
+	 * @return old with the child at index replaced.
 	 */
-	private int indexOf(Tree tree) {
-		for(int i = 0; i < this.children.size(); i++) {
-			if(this.children.get(i) == tree) {
-				return i;
-			}
-		}
-		return -1;
-	}
-	
-	/**
-	 * Constructs algebra from a given list of AlgebraicParticles. This is a reverse of 
-	 * {@link com.github.nateowami.solve4x.solver.Tree#children(Algebra)}. An instance of Algebra 
-	 * that is of the same type as the original Algebra is required in order to construct the right 
-	 * class. In general this will be the same Algebra (or a similar one) to the one that was 
-	 * "decomposed" into a list. Note that the type of the returned object is not necessarily the 
-	 * same as the type of the <code>old</code> parameter. For example, if the fraction in a 
-	 * MixedNumber were replaced with a single number, this would return an expression with two 
-	 * number terms.
-	 * @param l The list of AlgebraicParticle from which to construct Algebra. 
-	 * @param old Any object that is of the type of the algebra we're constructing. 
-	 * @return The given list l constructed as algebra.
-	 */
-	private static Algebra constructAlgebra(ArrayList<AlgebraicParticle> l, Algebra old) {
-		Boolean s /*sign*/ = null;
-		Integer e /*exponent*/ = null;
-		if(old instanceof AlgebraicParticle) {
-			AlgebraicParticle a =  (AlgebraicParticle) old;
-			s = a.sign();
-			e = a.exponent();
+	static Algebra withChild(Algebra old, int index, AlgebraicParticle child) {
+		if(old instanceof Equation) {
+			Equation eq = (Equation) old;
+			return index == 0 ? new Equation(child, eq.right()) : new Equation(eq.left(), child);
 		}
 		
-		
-		if(old instanceof Equation) return new Equation(l.get(0), l.get(1));
-		//if expression, or it's a mixed number but the fraction was replaced with something other than a fraction
-		if(old instanceof Expression || old instanceof MixedNumber && !(l.get(1) instanceof Fraction)) {
-			return new Expression(s, l, e);
+		AlgebraicParticle a = (AlgebraicParticle) old;
+		if(old instanceof AlgebraicCollection) return ((AlgebraicCollection)old).cloneWithNewElement(index, child);
+		if(old instanceof Fraction) {
+			Fraction f = (Fraction) old;
+			return new Fraction(a.sign(), index == 0 ? child : f.getTop(), index == 1 ? child : f.getBottom(), a.exponent());
 		}
-		if(old instanceof Term) return new Term(s, l, e);
-		if(old instanceof Fraction) return new Fraction(s, l.get(0), l.get(1), e);
-		if(old instanceof MixedNumber) return new MixedNumber(s, (Number) l.get(0), (Fraction) l.get(1), e);
-		if(old instanceof Root) return new Root(s, ((Root)old).getNthRoot(), l.get(0), e);
+		if(old instanceof MixedNumber) {
+			MixedNumber m = (MixedNumber) old;
+			//if the fraction was replaced with something other than a fraction it's just an expression
+			if(index == 1 && !(child instanceof Fraction)) {
+				return new Expression(a.sign(), list(m.getNumeral(), child), a.exponent());
+			}
+			return new MixedNumber(a.sign(), index == 0 ? (Number) child : m.getNumeral(), index == 1 ? (Fraction) child : m.getFraction(), a.exponent());
+		}
+		if(old instanceof Root) return new Root(a.sign(), ((Root)old).getNthRoot(), child, a.exponent());
 		throw new RuntimeException("None of the above matched. Must have been sent a variable or number or something.");
 	}
-
 	
 }
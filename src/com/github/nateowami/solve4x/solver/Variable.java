@@ -22,6 +22,12 @@ package com.github.nateowami.solve4x.solver;
  * @author Nateowami
  */
 public class Variable extends AlgebraicParticle{
+	
+	//the highest exponent that valueOf() returns a cached instance for
+	private static final int MAX_CACHED_EXPONENT = 3;
+	//the canonical instances of each letter in both signs with the exponents 1 to MAX_CACHED_EXPONENT
+	private static final Variable[] CACHE = cache();
+	
 	private final char var;
 	
 	/**
@@ -47,6 +53,68 @@ public class Variable extends AlgebraicParticle{
 		this.var = var;
 	}
 	
+	/**
+	 * Returns a positive variable with an exponent of 1. See {@link #valueOf(boolean, char, int)}.
+	 * @param var The variable itself (e.g. 'x').
+	 * @return The variable.
+	 * @throws ParsingException If var is not A-Z or a-z.
+	 */
+	public static Variable valueOf(char var) {
+		return valueOf(true, var, 1);
+	}
+	
+	/**
+	 * Returns a variable. Each letter, in either sign, with an exponent from 1 to 
+	 * {@value #MAX_CACHED_EXPONENT}, always returns the same (interned) instance, so they don't need 
+	 * to be created again every time they come up.
+	 * @param sign The sign of the variable.
+	 * @param var The variable itself (e.g. 'x').
+	 * @param exponent The exponent of the variable.
+	 * @return The variable.
+	 * @throws ParsingException If var is not A-Z or a-z.
+	 */
+	public static Variable valueOf(boolean sign, char var, int exponent) {
+		int i = index(var);
+		if(i == -1) throw new ParsingException("Cannot parse \"" + var + "\" as a variable. Expected one alphabetic character (a-z or A-Z).");
+		if(exponent < 1 || exponent > MAX_CACHED_EXPONENT) return new Variable(sign, var, exponent);
+		return CACHE[(i * 2 + (sign ? 0 : 1)) * MAX_CACHED_EXPONENT + exponent - 1];
+	}
+	
+	/**
+	 * Creates the canonical instances of the variables, in the order valueOf() looks them up.
+	 * @return The variables.
+	 */
+	private static Variable[] cache() {
+		Variable[] cache = new Variable[52 * 2 * MAX_CACHED_EXPONENT];
+		for(char c = 'a'; c <= 'z'; c++) cache(cache, c);
+		for(char c = 'A'; c <= 'Z'; c++) cache(cache, c);
+		return cache;
+	}
+	
+	/**
+	 * Creates the canonical instances of one letter.
+	 * @param cache The cache to put them in.
+	 * @param var The letter.
+	 */
+	private static void cache(Variable[] cache, char var) {
+		int i = index(var) * 2 * MAX_CACHED_EXPONENT;
+		for(int sign = 0; sign < 2; sign++) {
+			for(int exponent = 1; exponent <= MAX_CACHED_EXPONENT; exponent++) {
+				cache[i++] = Interner.intern(new Variable(sign == 0, var, exponent));
+			}
+		}
+	}
+	
+	/**
+	 * @param var A char.
+	 * @return The position of var among the letters a-z followed by A-Z, or -1 if it isn't one.
+	 */
+	private static int index(char var) {
+		if(var >= 'a' && var <= 'z') return var - 'a';
+		if(var >= 'A' && var <= 'Z') return var - 'A' + 26;
+		return -1;
+	}
+	
 	/**
 	 * @return The variables character (e.g. 'x').
 	 */
@@ -89,10 +157,29 @@ public class Variable extends AlgebraicParticle{
 	@Override
 	public Variable cloneWithNewSign(boolean sign) {
 		if(this.sign() == sign) return this;
-		return new Variable(sign,
-				this.var,
-				this.exponent()
-				);
+		return copyOf(sign, this.var, this.exponent());
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.github.nateowami.solve4x.solver.AlgebraicParticle#copy(boolean, int)
+	 */
+	@Override
+	protected Variable copy(boolean sign, int exponent) {
+		return copyOf(sign, this.var, exponent);
+	}
+	
+	/**
+	 * Returns the cached instance of a variable if there is one, or else a new one. Unlike 
+	 * {@link #valueOf(boolean, char, int)} this accepts any char, since variables constructed 
+	 * directly aren't limited to A-Z and a-z.
+	 * @param sign The sign of the variable.
+	 * @param var The variable itself (e.g. 'x').
+	 * @param exponent The exponent of the variable.
+	 * @return The variable.
+	 */
+	private static Variable copyOf(boolean sign, char var, int exponent) {
+		if(index(var) == -1 || exponent < 1 || exponent > MAX_CACHED_EXPONENT) return new Variable(sign, var, exponent);
+		return valueOf(sign, var, exponent);
 	}
 	
 	/* (non-Javadoc)
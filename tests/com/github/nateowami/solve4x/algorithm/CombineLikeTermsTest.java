@@ -73,6 +73,17 @@ public class CombineLikeTermsTest {
 		assertEquals(0, c.smarts(a("13x-2x3")));
 	}
 	
+	/**
+	 * Test method for {@link com.github.nateowami.solve4x.algorithm.CombineLikeTerms#match(com.github.nateowami.solve4x.solver.Algebra)}.
+	 */
+	@Test
+	public void testMatch() {
+		Algorithm.Match match = c.match(a("2x+6x+4-2+45x"));
+		assertEquals(9, match.getSmarts());
+		assertEquals(c.execute(a("2x+6x+4-2+45x")).getChange(), c.execute(match).getChange());
+		assertEquals(c.execute(a("2x+6x+4-2+45x")).getChange(), c.execute(match).getChange());
+	}
+	
 	/**
 	 * Test method for {@link com.github.nateowami.solve4x.algorithm.CombineLikeTerms#combineTerms(com.github.nateowami.solve4x.solver.AlgebraicParticle, com.github.nateowami.solve4x.solver.AlgebraicParticle)}.
 	 */
@@ -21,6 +21,8 @@ import static org.junit.Assert.*;
 
 import org.junit.Test;
 
+import com.github.nateowami.solve4x.solver.Algorithm.Match;
+
 import static com.github.nateowami.solve4x.algorithm.AlgorithmTests.*;
 
 /**
@@ -61,4 +63,17 @@ public class FactorTest {
 		assertEquals(7, f.smarts(a("2xy+4x³y+6")));
 	}
 	
+	/**
+	 * Test method for {@link com.github.nateowami.solve4x.algorithm.Factor#match(com.github.nateowami.solve4x.solver.Algebra)}.
+	 */
+	@Test
+	public final void testMatch() {
+		Match match = f.match(a("-2x-6"));
+		assertEquals(f.smarts(a("-2x-6")), match.getSmarts());
+		//executing a match doesn't change it, so it can be executed again
+		assertEquals(f.execute(a("-2x-6")).getChange(), f.execute(match).getChange());
+		assertEquals(f.execute(a("-2x-6")).getChange(), f.execute(match).getChange());
+		assertEquals(9, f.match(a("15(x+6)⁶+3(x+6)")).getSmarts());
+	}
+	
 }
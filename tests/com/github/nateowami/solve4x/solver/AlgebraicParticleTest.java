@@ -162,6 +162,46 @@ public class AlgebraicParticleTest {
 		assertSame(same, same.cloneWithNewSignAndExponent(false, 1));
 	}
 	
+	/**
+	 * Test method for {@link com.github.nateowami.solve4x.solver.Algebra#nodeCount()}, 
+	 * {@link com.github.nateowami.solve4x.solver.Algebra#depth()}, and 
+	 * {@link com.github.nateowami.solve4x.solver.Algebra#variableCount()}.
+	 */
+	@Test
+	public void testComplexity() {
+		assertEquals(1, a("5").nodeCount());
+		assertEquals(1, a("5").depth());
+		assertEquals(0, a("5").variableCount());
+		assertEquals(5, a("2x+5").nodeCount());
+		assertEquals(3, a("2x+5").depth());
+		assertEquals(1, a("2x+5").variableCount());
+		assertEquals(3, a("2x+xy").variableCount());
+		assertEquals(7, new Equation("2x+5=x").nodeCount());
+		assertEquals(4, new Equation("2x+5=x").depth());
+		assertEquals(2, new Equation("2x+5=x").variableCount());
+		assertEquals(3, a("√(x+1)").depth());
+		assertEquals(5, a("2(1)/(2)").nodeCount());
+		//changing the sign or exponent doesn't change the structure
+		assertEquals(5, a("2x+5").cloneWithNewSignAndExponent(false, 2).nodeCount());
+	}
+	
+	/**
+	 * Test method for {@link com.github.nateowami.solve4x.solver.Algebra#hashCode()}.
+	 */
+	@Test
+	public void testHashCode() {
+		AlgebraicParticle expr = a("2x+(3)/(4)-√(5)");
+		int hash = expr.hashCode();
+		assertEquals(hash, expr.hashCode());
+		assertEquals(hash, AlgebraicParticle.getInstance("2x+(3)/(4)-√(5)", null).hashCode());
+		assertEquals(new Equation("2x=4").hashCode(), new Equation(a("2x"), a("4")).hashCode());
+		//a clone with a different sign or exponent doesn't keep the old hash code
+		AlgebraicParticle term = a("2x(3)/(4)");
+		term.hashCode();
+		assertEquals(a("-(2x(3)/(4))²").hashCode(), term.cloneWithNewSignAndExponent(false, 2).hashCode());
+		assertEquals(a("-2(1)/(2)").hashCode(), a("2(1)/(2)").cloneWithNewSignAndExponent(false, null).hashCode());
+	}
+	
 	AlgebraicParticle a(String s){
 		return AlgebraicParticle.getInstance(s);
 	}
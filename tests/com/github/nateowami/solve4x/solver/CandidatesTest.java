@@ -0,0 +1,67 @@
+/*
+    Solve4x - An algebra solver that shows its work
+    Copyright (C) 2015  Nathaniel Paulus
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.nateowami.solve4x.solver;
+
+import static org.junit.Assert.*;
+import static com.github.nateowami.solve4x.solver.SolverTests.a;
+
+import org.junit.Test;
+
+/**
+ * @author Nateowami
+ */
+public class CandidatesTest {
+	
+	@Test
+	public void testRanking() {
+		Candidates candidates = new Candidates(new Solution(a("2+2")), 30);
+		assertFalse(candidates.hasNext());
+		Tree[] nodes = new Tree[5];
+		Algorithm.Match[] matches = new Algorithm.Match[5];
+		int[] smarts = {3, 7, 3, 9, 7};
+		for(int i = 0; i < nodes.length; i++) {
+			nodes[i] = new Tree(a("2+2"));
+			matches[i] = new Algorithm.Match(nodes[i].algebra(), smarts[i], null);
+			candidates.add(null, nodes[i], matches[i]);
+		}
+		assertEquals(5, candidates.size());
+		
+		//highest smarts first, ties in the order they were added
+		int[] expected = {3, 1, 4, 0, 2};
+		for(int i : expected) {
+			assertTrue(candidates.hasNext());
+			assertEquals(smarts[i], candidates.peekSmarts());
+			assertEquals(30 + 10 - smarts[i], candidates.nextCost());
+			int next = candidates.next();
+			assertEquals(i, next);
+			assertSame(nodes[i], candidates.node(next));
+			assertSame(matches[i], candidates.match(next));
+			assertEquals(smarts[i], candidates.smarts(next));
+		}
+		assertFalse(candidates.hasNext());
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void testAddAfterRanking() {
+		Candidates candidates = new Candidates(new Solution(a("2+2")), 0);
+		candidates.add(null, null, new Algorithm.Match(null, 1, null));
+		candidates.next();
+		candidates.add(null, null, new Algorithm.Match(null, 2, null));
+	}
+	
+}
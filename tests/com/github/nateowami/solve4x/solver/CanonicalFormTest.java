@@ -0,0 +1,79 @@
+/*
+    Solve4x - An algebra solver that shows its work
+    Copyright (C) 2015  Nathaniel Paulus
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.nateowami.solve4x.solver;
+
+import static org.junit.Assert.*;
+import static com.github.nateowami.solve4x.solver.SolverTests.a;
+
+import org.junit.Test;
+
+/**
+ * @author Nateowami
+ */
+public class CanonicalFormTest {
+	
+	@Test
+	public void testEquivalent() {
+		assertTrue(CanonicalForm.equivalent(a("2+x"), a("x+2")));
+		assertTrue(CanonicalForm.equivalent(a("3xy"), a("3yx")));
+		assertTrue(CanonicalForm.equivalent(a("(3)/(2+x)"), a("(3)/(x+2)")));
+		assertTrue(CanonicalForm.equivalent(a("y+3x+2"), a("2+3x+y")));
+		assertTrue(CanonicalForm.equivalent(new Equation("x+2=5"), new Equation("2+x=5")));
+		
+		assertFalse(CanonicalForm.equivalent(a("2+x"), a("2-x")));
+		assertFalse(CanonicalForm.equivalent(a("2+x+x"), a("2+2+x")));
+		assertFalse(CanonicalForm.equivalent(a("(2+x)²"), a("(x+2)")));
+		assertFalse(CanonicalForm.equivalent(a("(3)/(2)"), a("(2)/(3)")));
+		//the sides of an equation can't be swapped
+		assertFalse(CanonicalForm.equivalent(new Equation("x=5"), new Equation("5=x")));
+		//nothing gets regrouped
+		assertFalse(CanonicalForm.equivalent(a("2+(3+x)"), a("2+3+x")));
+	}
+	
+	@Test
+	public void testFingerprint() {
+		assertEquals(CanonicalForm.fingerprint(a("2+x")), CanonicalForm.fingerprint(a("x+2")));
+		assertEquals(CanonicalForm.fingerprint(a("3xy")), CanonicalForm.fingerprint(a("3yx")));
+		assertEquals(CanonicalForm.fingerprint(new Equation("y+3x=2")), CanonicalForm.fingerprint(new Equation("3x+y=2")));
+		assertFalse(CanonicalForm.fingerprint(new Equation("x=5")) == CanonicalForm.fingerprint(new Equation("5=x")));
+		assertFalse(CanonicalForm.fingerprint(a("2+x+x")) == CanonicalForm.fingerprint(a("2+2+x")));
+	}
+	
+	@Test
+	public void testNumbers() {
+		assertEquals(CanonicalForm.fingerprint(new Number("1.5")), CanonicalForm.fingerprint(new Number("1.5")));
+		//every digit written counts, as it does for equals()
+		assertFalse(CanonicalForm.fingerprint(new Number("1.50")) == CanonicalForm.fingerprint(new Number("1.5")));
+		assertFalse(CanonicalForm.fingerprint(new Number("007")) == CanonicalForm.fingerprint(new Number("7")));
+		assertFalse(CanonicalForm.fingerprint(new Number("0.15")) == CanonicalForm.fingerprint(new Number("1.5")));
+		assertFalse(CanonicalForm.fingerprint(new Number("1.5*10²")) == CanonicalForm.fingerprint(new Number("1.5")));
+		assertEquals(CanonicalForm.fingerprint(new Number("98765432109876543210.5")), CanonicalForm.fingerprint(new Number("98765432109876543210.5")));
+		assertFalse(CanonicalForm.fingerprint(new Number("98765432109876543210.5")) == CanonicalForm.fingerprint(new Number("98765432109876543211.5")));
+	}
+	
+	@Test
+	public void testRemembered() {
+		Expression expr = (Expression) a("3y+(x+1)/(2)");
+		long fingerprint = CanonicalForm.fingerprint(expr);
+		//every piece of the algebra remembers its hash, so algebra sharing it doesn't hash it again
+		assertFalse(expr.get(1).canonicalHash == 0);
+		assertEquals(expr.get(1).canonicalHash, CanonicalForm.fingerprint(a("(1+x)/(2)")));
+		assertEquals(fingerprint, CanonicalForm.fingerprint(new Expression(true, Util.<AlgebraicParticle>list(expr.get(1), expr.get(0)), 1)));
+	}
+	
+}
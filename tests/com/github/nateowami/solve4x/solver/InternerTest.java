@@ -0,0 +1,106 @@
+/*
+    Solve4x - An algebra solver that shows its work
+    Copyright (C) 2015  Nathaniel Paulus
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.nateowami.solve4x.solver;
+
+import static org.junit.Assert.*;
+import static com.github.nateowami.solve4x.solver.SolverTests.a;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+/**
+ * @author Nateowami
+ */
+public class InternerTest {
+	
+	@Test
+	public void testIntern() {
+		assertNull(Interner.intern(null));
+		//parsed algebra is interned
+		assertSame(a("2x+(3)/(4)"), a("2x+(3)/(4)"));
+		assertSame(new Equation("2x=4").left(), new Equation("2x=4").left());
+		
+		//and so are its children
+		Expression expr = (Expression) a("2x+(3)/(4)");
+		assertSame(a("2x"), expr.get(0));
+		assertSame(a("(3)/(4)"), expr.get(1));
+		
+		//algebra that's built is shared with algebra that's parsed
+		ArrayList<AlgebraicParticle> parts = new ArrayList<AlgebraicParticle>();
+		parts.add(new Number("5"));
+		parts.add(new Variable("y"));
+		Term built = new Term(true, parts, 1);
+		Term interned = Interner.intern(built);
+		assertEquals(built, interned);
+		assertSame(a("5y"), interned);
+		assertSame(interned, Interner.intern(interned));
+		
+		//equal algebra is still told apart from algebra that isn't
+		assertNotSame(a("5y"), a("-5y"));
+		assertNotSame(a("5y"), a("5y²"));
+	}
+	
+	@Test
+	public void testTree() {
+		Tree tree = new Tree(a("2x+3x+4"));
+		assertSame(a("2x+3x+4"), tree.algebra());
+		//replacing a node shares the new algebra with any equal algebra
+		Tree replaced = tree.get(0).replacement(a("5x"));
+		assertSame(a("5x+3x+4"), replaced.algebra());
+		assertSame(a("3x"), replaced.get(1).algebra());
+		//the path from the replaced node to the top is interned too, even if it's new algebra
+		Tree fraction = new Tree(a("(2x)/(y+1)"));
+		Tree deep = fraction.get(1).get(1).replacement(new Number("9"));
+		assertSame(a("(2x)/(y+9)"), deep.algebra());
+		assertSame(a("y+9"), deep.get(1).algebra());
+		assertSame(a("9"), deep.get(1).get(1).algebra());
+		//including when part of the path was already interned
+		Tree other = new Tree(a("(5x)/(y+1)")).get(1).get(1).replacement(new Number("9"));
+		assertSame(a("(5x)/(y+9)"), other.algebra());
+		assertSame(a("y+9"), other.get(1).algebra());
+	}
+	
+	@Test
+	public void testThreads() throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			List<Callable<Algebra>> tasks = new ArrayList<Callable<Algebra>>();
+			for(int i = 0; i < 16; i++) {
+				tasks.add(new Callable<Algebra>() {
+					public Algebra call() {
+						return Interner.intern(new Expression(true, Util.<AlgebraicParticle>list(new Number("7"), new Variable("z")), 1));
+					}
+				});
+			}
+			Algebra first = null;
+			for(Future<Algebra> future : pool.invokeAll(tasks)) {
+				if(first == null) first = future.get();
+				assertSame(first, future.get());
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+	
+}
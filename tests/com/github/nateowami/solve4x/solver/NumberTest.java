@@ -19,6 +19,8 @@ package com.github.nateowami.solve4x.solver;
 
 import static org.junit.Assert.*;
 
+import java.math.BigDecimal;
+
 import org.junit.Test;
 
 import static com.github.nateowami.solve4x.algorithm.AlgorithmTests.*;
@@ -177,6 +179,9 @@ public class NumberTest {
 		assertEquals("42", new Number("42.").toBigDecimal().toString());
 		assertEquals("0.6", new Number("0.6").toBigDecimal().toString());
 		assertEquals("-234.026", ((Number)AlgebraicParticle.getInstance("-234.026")).toBigDecimal().toString());
+		assertEquals("2.50E+3", new Number("2.50*10³").toBigDecimal().toString());
+		assertEquals("0.00010", new Number("1.0*10⁻⁴").toBigDecimal().toString());
+		assertEquals("123456789012345678901234.5", new Number("123456789012345678901234.5").toBigDecimal().toString());
 	}
 	
 	/**
@@ -186,6 +191,35 @@ public class NumberTest {
 	@Test
 	public void testToNumber()  {
 		assertEquals("1.0", Number.toNumber(new Number("1.0").toBigDecimal()).render());
+		//numbers are written the way BigDecimal writes them
+		assertEquals(new Number("0.0012"), Number.toNumber(new BigDecimal("0.0012")));
+		assertEquals(new Number("0.000"), Number.toNumber(new BigDecimal("0.000")));
+		assertEquals(new Number("1.2*10⁻⁷"), Number.toNumber(new BigDecimal("0.00000012")));
+		assertEquals(new Number("1.20*10³"), Number.toNumber(new BigDecimal("1.20E+3")));
+		assertEquals(new Number("0*10²"), Number.toNumber(new BigDecimal("0E+2")));
+		assertEquals(AlgebraicParticle.getInstance("-12.5"), Number.toNumber(new BigDecimal("-12.5")));
+		assertEquals(new Number("98765432109876543210.5"), Number.toNumber(new BigDecimal("98765432109876543210.5")));
+	}
+	
+	/**
+	 * Test method for {@link com.github.nateowami.solve4x.solver.Number#getInteger()} and 
+	 * {@link com.github.nateowami.solve4x.solver.Number#getDecimal()}.
+	 */
+	@Test
+	public void testDigits() {
+		//every digit written counts
+		assertEquals("007", new Number("007").getInteger());
+		assertEquals("0", new Number("0.05").getInteger());
+		assertEquals("05", new Number("0.05").getDecimal());
+		assertEquals("340", new Number("12.340").getDecimal());
+		assertFalse(new Number("2.5").equals(new Number("2.50")));
+		assertEquals(5, new Number("12.340").sigFigs());
+		assertTrue(new Number("0").isZero());
+		assertFalse(new Number("0.0").isZero());
+		//numbers too big for a long
+		assertEquals("98765432109876543210", new Number("98765432109876543210.5").getInteger());
+		assertEquals(new Number("98765432109876543210.5").hashCode(), new Number(true, "98765432109876543210", "5", null, 1).hashCode());
+		assertEquals("9223372036854775808", new Number("9223372036854775808").render());
 	}
 	
 	/**
@@ -240,6 +274,47 @@ public class NumberTest {
 		assertEquals(Number.NEGATIVE_ONE, new Number("1").cloneWithNewSign(false));
 	}
 	
+	/**
+	 * Test method for {@link com.github.nateowami.solve4x.solver.Number#valueOf(long)}.
+	 */
+	@Test
+	public void testValueOf() {
+		assertSame(Number.valueOf(2), Number.valueOf(2));
+		assertSame(Number.valueOf(-1024), Number.valueOf(-1024));
+		assertSame(Number.ONE, Number.valueOf(1));
+		assertSame(Number.NEGATIVE_ONE, Number.valueOf(-1));
+		assertEquals(new Number("-37"), Number.valueOf(-37));
+		assertEquals(new Number("0"), Number.valueOf(0));
+		//the cached instances are the interned ones
+		assertSame(Number.valueOf(12), AlgebraicParticle.getInstance("12"));
+		assertSame(Number.valueOf(-5), new Number("5").cloneWithNewSign(false));
+		assertSame(Number.valueOf(6), Number.add(new Number("2"), new Number("4"), RoundingRule.ALWAYS));
+		//numbers that aren't cached are still right
+		assertEquals(new Number("1025"), Number.valueOf(1025));
+		assertEquals(new Number("-123456789012"), Number.valueOf(-123456789012L));
+		assertEquals("-9223372036854775808", Number.valueOf(Long.MIN_VALUE).render());
+		assertEquals(new Number("9223372036854775807"), Number.valueOf(Long.MAX_VALUE));
+		assertNotSame(Number.valueOf(2), new Number("2").cloneWithNewSignAndExponent(null, 2));
+		assertFalse(Number.valueOf(7).equals(new Number("007")));
+	}
+	
+	/**
+	 * Test method for {@link com.github.nateowami.solve4x.solver.Number#valueOf(String)}.
+	 */
+	@Test
+	public void testValueOfString() {
+		//parsed integers come straight from the cache, whether or not they're interned afterwards
+		assertSame(Number.valueOf(7), AlgebraicParticle.getInstance("7"));
+		assertSame(Number.valueOf(7), AlgebraicParticle.getInstance("7", null));
+		assertSame(Number.valueOf(-12), Number.valueOf("-12"));
+		assertSame(Number.valueOf(3), ((MixedNumber) AlgebraicParticle.getInstance("3(1)/(2)", null)).getNumeral());
+		//anything else is parsed as usual
+		assertEquals(new Number("2.5"), Number.valueOf("2.5"));
+		assertEquals(new Number("007"), Number.valueOf("007"));
+		assertEquals(new Number("4.2*10³"), Number.valueOf("4.2*10³"));
+		assertEquals(new Number("123456789"), Number.valueOf("123456789"));
+	}
+	
 	/**
 	 * Test method for {@link com.github.nateowami.solve4x.solver.Number#GCF(int, int)}.
 	 */
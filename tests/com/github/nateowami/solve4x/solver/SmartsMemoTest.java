@@ -0,0 +1,73 @@
+/*
+    Solve4x - An algebra solver that shows its work
+    Copyright (C) 2015  Nathaniel Paulus
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.nateowami.solve4x.solver;
+
+import static org.junit.Assert.*;
+import static com.github.nateowami.solve4x.solver.SolverTests.a;
+
+import org.junit.Test;
+
+import com.github.nateowami.solve4x.algorithm.CombineLikeTerms;
+import com.github.nateowami.solve4x.algorithm.Factor;
+import com.github.nateowami.solve4x.config.RoundingRule;
+
+/**
+ * @author Nateowami
+ */
+public class SmartsMemoTest {
+	
+	@Test
+	public void testGetAndPut() {
+		SmartsMemo memo = new SmartsMemo();
+		Algorithm combine = new CombineLikeTerms(RoundingRule.ALWAYS), factor = new Factor();
+		Algebra algebra = a("2x+3x");
+		assertNull(memo.get(combine, algebra));
+		Algorithm.Match combineMatch = combine.match(algebra), factorMatch = factor.match(algebra);
+		memo.put(combine, combineMatch);
+		memo.put(factor, factorMatch);
+		assertSame(combineMatch, memo.get(combine, algebra));
+		assertSame(factorMatch, memo.get(factor, algebra));
+		//algebra is looked up by identity, not by what it looks like (parsed algebra is interned)
+		assertSame(combineMatch, memo.get(combine, a("2x+3x")));
+		assertNull(memo.get(combine, AlgebraicParticle.getInstance("2x+3x", null)));
+		assertEquals(2, memo.size());
+	}
+	
+	@Test
+	public void testCapacity() {
+		SmartsMemo memo = new SmartsMemo(2);
+		Algorithm combine = new CombineLikeTerms(RoundingRule.ALWAYS);
+		Algorithm.Match first = new Algorithm.Match(a("1"), 1, null), second = new Algorithm.Match(a("2"), 2, null), 
+				third = new Algorithm.Match(a("3"), 3, null);
+		memo.put(combine, first);
+		memo.put(combine, second);
+		//using the first makes the second the least recently used
+		assertSame(first, memo.get(combine, first.getAlgebra()));
+		memo.put(combine, third);
+		assertEquals(2, memo.size());
+		assertSame(first, memo.get(combine, first.getAlgebra()));
+		assertNull(memo.get(combine, second.getAlgebra()));
+		assertSame(third, memo.get(combine, third.getAlgebra()));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testIllegalCapacity() {
+		new SmartsMemo(0);
+	}
+	
+}
@@ -0,0 +1,149 @@
+/*
+    Solve4x - An algebra solver that shows its work
+    Copyright (C) 2015  Nathaniel Paulus
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.nateowami.solve4x.solver;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import org.junit.Test;
+
+import com.github.nateowami.solve4x.config.RoundingRule;
+import com.github.nateowami.solve4x.solver.Solver.SolveFor;
+import com.github.nateowami.solve4x.solver.Solver.Strategy;
+
+/**
+ * @author Nateowami
+ */
+public class SolutionCacheTest {
+	
+	RoundingRule round = RoundingRule.FOR_SCIENTIFIC_NOTATION;
+	
+	@Test
+	public void testSolve() {
+		SolutionCache cache = new SolutionCache(10);
+		Solution solution = cache.solve("3x+4-2=17+2x", SolveFor.SOLVE, round);
+		assertEquals(new Equation("x=15"), solution.getLastAlgebraicExpression());
+		assertEquals(0, cache.getHits());
+		assertEquals(1, cache.getMisses());
+		
+		//the same problem (ignoring spaces and commas) gives the same solution
+		assertSame(solution, cache.solve("3x + 4 - 2 = 17 + 2x", SolveFor.SOLVE, round));
+		assertEquals(1, cache.getHits());
+		
+		//but a different rounding rule or strategy is a different problem
+		assertNotSame(solution, cache.solve("3x+4-2=17+2x", SolveFor.SOLVE, RoundingRule.ALWAYS));
+		assertNotSame(solution, cache.solve("3x+4-2=17+2x", SolveFor.SOLVE, round, Strategy.BEST_FIRST, Deadline.NONE));
+		assertEquals(1, cache.getHits());
+		assertEquals(3, cache.getMisses());
+		assertEquals(3, cache.size());
+		
+		//constructed rules with the same value are the same rule
+		Solution custom = cache.solve("3x+4-2=17+2x", SolveFor.SOLVE, new RoundingRule(4));
+		assertSame(custom, cache.solve("3x+4-2=17+2x", SolveFor.SOLVE, new RoundingRule(4)));
+		
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertNotSame(solution, cache.solve("3x+4-2=17+2x", SolveFor.SOLVE, round));
+	}
+	
+	@Test
+	public void testCapacity() {
+		SolutionCache cache = new SolutionCache(2);
+		Solution first = cache.solve("2+2", SolveFor.SIMPLIFY, round);
+		cache.solve("3+3", SolveFor.SIMPLIFY, round);
+		//using the first makes the second the least recently used
+		cache.solve("2+2", SolveFor.SIMPLIFY, round);
+		cache.solve("4+4", SolveFor.SIMPLIFY, round);
+		assertEquals(2, cache.size());
+		assertSame(first, cache.solve("2+2", SolveFor.SIMPLIFY, round));
+		long misses = cache.getMisses();
+		cache.solve("3+3", SolveFor.SIMPLIFY, round);
+		assertEquals(misses + 1, cache.getMisses());
+	}
+	
+	@Test
+	public void testEngineReused() {
+		SolutionCache cache = new SolutionCache(2);
+		SolverEngine engine = cache.engine(round, Strategy.BREADTH_FIRST);
+		cache.solve("2+2", SolveFor.SIMPLIFY, round);
+		cache.solve("3x=6", SolveFor.SOLVE, round);
+		assertSame(engine, cache.engine(round, Strategy.BREADTH_FIRST));
+		assertNotSame(engine, cache.engine(round, Strategy.BEST_FIRST));
+		assertNotSame(engine, cache.engine(RoundingRule.ALWAYS, Strategy.BREADTH_FIRST));
+		assertSame(cache.engine(new RoundingRule(4), Strategy.BEAM), cache.engine(new RoundingRule(4), Strategy.BEAM));
+		//only a limited number of engines are kept
+		SolverEngine custom = cache.engine(new RoundingRule(100), Strategy.BEAM);
+		for(int i = 1; i <= SolutionCache.ENGINES; i++) cache.engine(new RoundingRule(i), Strategy.BEAM);
+		assertNotSame(custom, cache.engine(new RoundingRule(100), Strategy.BEAM));
+	}
+	
+	@Test
+	public void testTimedOutNotKept() {
+		SolutionCache cache = new SolutionCache(2);
+		Solution solution = cache.solve("3x+4-2=17+2x", SolveFor.SOLVE, round, Strategy.BREADTH_FIRST, Deadline.after(0));
+		assertTrue(solution.isTimedOut());
+		assertEquals(0, cache.size());
+	}
+	
+	@Test
+	public void testHitsCantBeModified() throws Exception {
+		//nothing outside the solver can add steps to a solution or change its summary
+		for(Method method : Solution.class.getDeclaredMethods()) {
+			if(method.getName().startsWith("add") || method.getName().startsWith("set")) {
+				assertFalse(method.getName(), Modifier.isPublic(method.getModifiers()));
+				assertFalse(method.getName(), Modifier.isProtected(method.getModifiers()));
+			}
+		}
+		//and only a step itself (or the solver) can change a step
+		for(Method method : Step.class.getDeclaredMethods()) {
+			String name = method.getName();
+			if(name.startsWith("explain") || name.startsWith("list") || name.startsWith("set")) {
+				assertFalse(name, Modifier.isPublic(method.getModifiers()));
+			}
+		}
+		SolutionCache cache = new SolutionCache(2);
+		Solution solution = cache.solve("2+2", SolveFor.SIMPLIFY, round);
+		int length = solution.length();
+		assertSame(solution, cache.solve("2+2", SolveFor.SIMPLIFY, round));
+		assertEquals(length, cache.solve("2+2", SolveFor.SIMPLIFY, round).length());
+		try {
+			solution.get(0).getExplanation().add("changed");
+			fail("The explanation of a shared step was changed.");
+		}
+		catch(UnsupportedOperationException e) {
+		}
+	}
+	
+	@Test
+	public void testRoundingRuleEquality() {
+		assertEquals(RoundingRule.ALWAYS, RoundingRule.ALWAYS);
+		//two canned rules share a value, but aren't the same rule
+		assertFalse(RoundingRule.FOR_SCIENTIFIC_NOTATION.equals(RoundingRule.FOR_SCIENTIFIC_NOTATION_AND_DECIMALS));
+		assertEquals(new RoundingRule(3), new RoundingRule(3));
+		assertEquals(new RoundingRule(3).hashCode(), new RoundingRule(3).hashCode());
+		assertFalse(new RoundingRule(3).equals(new RoundingRule(4)));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testIllegalCapacity() {
+		new SolutionCache(0);
+	}
+	
+}
@@ -34,6 +34,37 @@ public class SolutionTest {
 		assertEquals(0, solution1.length());
 	}
 	
+	@Test
+	public void testSharedSteps() {
+		Step step1 = new Step(a("1")), step2 = new Step(a("2")), step3 = new Step(a("3"));
+		Solution parent = new Solution(a("0"));
+		parent.addStep(step1);
+		Solution child1 = new Solution(parent), child2 = new Solution(parent);
+		child1.addStep(step2);
+		child2.addStep(step3);
+		
+		assertEquals(1, parent.length());
+		assertEquals(2, child1.length());
+		assertEquals(2, child2.length());
+		assertSame(step1, child1.get(0));
+		assertSame(step2, child1.get(1));
+		assertSame(step1, child2.get(0));
+		assertSame(step3, child2.get(1));
+		
+		//adding a step after the steps have been read
+		child1.addStep(step3);
+		assertEquals(3, child1.length());
+		assertSame(step3, child1.get(2));
+		assertEquals(a("0"), child1.getOriginalAlgebraicExpression());
+	}
+	
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testGetOutOfBounds() {
+		Solution solution = new Solution(a("1"));
+		solution.addStep(new Step(a("2")));
+		solution.get(1);
+	}
+	
 	//alias
 	private static AlgebraicParticle a(String s) {
 		return AlgebraicParticle.getInstance(s);
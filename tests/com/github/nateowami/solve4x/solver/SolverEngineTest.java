@@ -0,0 +1,202 @@
+/*
+    Solve4x - An algebra solver that shows its work
+    Copyright (C) 2015  Nathaniel Paulus
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.nateowami.solve4x.solver;
+
+import static org.junit.Assert.*;
+import static com.github.nateowami.solve4x.solver.SolverTests.a;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.github.nateowami.solve4x.algorithm.CombineLikeTerms;
+import com.github.nateowami.solve4x.config.RoundingRule;
+import com.github.nateowami.solve4x.solver.Solver.SolveFor;
+import com.github.nateowami.solve4x.solver.Solver.Strategy;
+import com.github.nateowami.solve4x.solver.SolverEngine.Options;
+
+/**
+ * @author Nateowami
+ */
+public class SolverEngineTest {
+	
+	RoundingRule round = RoundingRule.FOR_SCIENTIFIC_NOTATION;
+	
+	@Test
+	public void testSolve() {
+		SolverEngine engine = new SolverEngine(round);
+		assertEquals(new Equation("4=x"), engine.solve(new Equation("2+2=x"), SolveFor.SOLVE).getLastAlgebraicExpression());
+		assertEquals(new Equation("x=15"), engine.solve(new Equation("3x+4-2=17+2x"), SolveFor.SOLVE).getLastAlgebraicExpression());
+		assertEquals(a("2x+7"), engine.solve(a("5x+7-3x"), SolveFor.SIMPLIFY).getLastAlgebraicExpression());
+		//the same as a Solver would do
+		assertEquals(new Solver("3x+4-2=17+2x", SolveFor.SOLVE, round).getSolution().length(), 
+				engine.solve(new Equation("3x+4-2=17+2x"), SolveFor.SOLVE).length());
+	}
+	
+	@Test
+	public void testSubtreeMemo() {
+		for(Strategy strategy : Strategy.values()) {
+			SolverEngine engine = new SolverEngine(round, new Options().strategy(strategy).subtreeMemoCapacity(100));
+			//the simplified sides are spliced in, so the answer is the same
+			assertEquals(new Equation("x=15"), engine.solve(new Equation("3x+4-2=17+2x"), SolveFor.SOLVE).getLastAlgebraicExpression());
+			Solution solution = engine.solve(new Equation("2x+3x+4-1=10+8"), SolveFor.SOLVE);
+			Algebra solved = solution.getLastAlgebraicExpression();
+			assertTrue(solved.toString(), new Equation("x=3").equals(solved) || new Equation("3=x").equals(solved));
+			//each step still follows from the one before
+			for(int i = 0; i < solution.length(); i++) {
+				assertNotNull(solution.get(i).getAlgebraicExpression());
+				assertFalse(solution.get(i).getExplanation().isEmpty());
+			}
+			//simplifying doesn't use the memo
+			assertEquals(a("2x+7"), engine.solve(a("5x+7-3x"), SolveFor.SIMPLIFY).getLastAlgebraicExpression());
+		}
+	}
+	
+	@Test
+	public void testDecompose() {
+		for(Strategy strategy : Strategy.values()) {
+			SolverEngine engine = new SolverEngine(round, new Options().strategy(strategy).decompose(true));
+			//the sides are simplified on their own first, so the answer is the same
+			assertEquals(new Equation("x=15"), engine.solve(new Equation("3x+4-2=17+2x"), SolveFor.SOLVE).getLastAlgebraicExpression());
+			Solution solution = engine.solve(new Equation("2x+3x+4-1=10+8"), SolveFor.SOLVE);
+			Algebra solved = solution.getLastAlgebraicExpression();
+			assertTrue(solved.toString(), new Equation("x=3").equals(solved) || new Equation("3=x").equals(solved));
+			//the left side is simplified first, then the right
+			assertEquals(new Equation("5x+3=10+8"), solution.get(0).getAlgebraicExpression());
+			assertEquals(new Equation("5x+3=18"), solution.get(1).getAlgebraicExpression());
+			for(int i = 0; i < solution.length(); i++) assertFalse(solution.get(i).getExplanation().isEmpty());
+			//and so are the factors of a term
+			solution = engine.solve(a("(6)/(8)(2+3)"), SolveFor.SIMPLIFY);
+			assertEquals(a("(3)/(4)(2+3)"), solution.get(0).getAlgebraicExpression());
+			assertEquals(a("(3)/(4)5"), solution.get(1).getAlgebraicExpression());
+			//nothing to decompose
+			assertEquals(a("2x+7"), engine.solve(a("5x+7-3x"), SolveFor.SIMPLIFY).getLastAlgebraicExpression());
+			//the work done simplifying the parts is counted too
+			SolverStats stats = new SolverStats();
+			solution = engine.solve(a("(6)/(8)(2+3)"), SolveFor.SIMPLIFY, Deadline.NONE, stats);
+			long executed = 0;
+			for(SolverStats.AlgorithmStats algorithm : stats.getAlgorithmStats().values()) executed += algorithm.getExecuteCalls();
+			assertTrue(stats.getIterations() > 0);
+			assertTrue(executed >= solution.length());
+		}
+	}
+	
+	@Test
+	public void testAlgorithms() {
+		EnumMap<SolveFor, List<Algorithm>> algorithms = new EnumMap<SolveFor, List<Algorithm>>(SolveFor.class);
+		algorithms.put(SolveFor.SIMPLIFY, new ArrayList<Algorithm>(Collections.singletonList(new CombineLikeTerms(round))));
+		Options options = new Options().beamWidth(1);
+		SolverEngine engine = new SolverEngine(algorithms, options);
+		//changing the map or options afterwards doesn't affect the engine
+		algorithms.clear();
+		options.maxSteps(1);
+		assertEquals(a("2x+7"), engine.solve(a("5x+7-3x"), SolveFor.SIMPLIFY).getLastAlgebraicExpression());
+		
+		//with no algorithms for solving, nothing can be done
+		Solution solution = engine.solve(new Equation("2+2=x"), SolveFor.SOLVE);
+		assertEquals(0, solution.length());
+		assertEquals("The problem could not be fully solved.", solution.getSummary());
+	}
+	
+	@Test
+	public void testMaxSteps() {
+		Solution solution = new SolverEngine(round, new Options().beamWidth(1).maxSteps(1)).solve(new Equation("3x+4-2=17+2x"), SolveFor.SOLVE);
+		assertEquals(1, solution.length());
+		assertEquals("The problem could not be fully solved.", solution.getSummary());
+	}
+	
+	@Test
+	public void testTimeLimit() {
+		SolverEngine engine = new SolverEngine(round, new Options().beamWidth(1).timeLimit(60000));
+		assertFalse(engine.solve(new Equation("3x+4-2=17+2x"), SolveFor.SOLVE).isTimedOut());
+		assertTrue(engine.solve(new Equation("3x+4-2=17+2x"), SolveFor.SOLVE, Deadline.after(0)).isTimedOut());
+	}
+	
+	@Test
+	public void testSharedAcrossThreads() throws Exception {
+		final SolverEngine engine = new SolverEngine(round, new Options().strategy(Strategy.BEST_FIRST).beamWidth(1));
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Algebra>> results = new ArrayList<Future<Algebra>>();
+			for(int i = 0; i < 16; i++) {
+				results.add(pool.submit(new Callable<Algebra>() {
+					public Algebra call() {
+						return engine.solve(new Equation("3x+4-2=17+2x"), SolveFor.SOLVE).getLastAlgebraicExpression();
+					}
+				}));
+			}
+			for(Future<Algebra> result : results) assertEquals(new Equation("x=15"), result.get());
+		} finally {
+			pool.shutdown();
+		}
+	}
+	
+	@Test
+	public void testStats() {
+		for(Strategy strategy : Strategy.values()) {
+			SolverStats stats = new SolverStats();
+			Solution solution = new SolverEngine(round, new Options().strategy(strategy))
+					.solve(new Equation("3x+4-2=17+2x"), SolveFor.SOLVE, Deadline.NONE, stats);
+			assertEquals(new Equation("x=15"), solution.getLastAlgebraicExpression());
+			
+			assertTrue(stats.getIterations() > 0);
+			assertEquals(stats.getIterations(), stats.getExpandedPerIteration().size());
+			assertEquals(stats.getIterations(), stats.getFrontierSizes().size());
+			//the first iteration expands the problem as given
+			assertEquals(Integer.valueOf(1), stats.getExpandedPerIteration().get(0));
+			assertTrue(stats.getDedupHits() > 0);
+			assertTrue(stats.getAlgorithmStats().containsKey(CombineLikeTerms.class));
+			
+			//each candidate is executed and put in place at most once
+			long executed = 0, memoHits = 0;
+			for(SolverStats.AlgorithmStats algorithm : stats.getAlgorithmStats().values()) {
+				assertTrue(algorithm.getSmartsCalls() > 0);
+				assertEquals(algorithm.getExecuteCalls(), algorithm.getReplacementCalls());
+				executed += algorithm.getExecuteCalls();
+				memoHits += algorithm.getSmartsMemoHits();
+			}
+			//algebra that wasn't changed by a step is scored only once
+			assertTrue(memoHits > 0);
+			//and only best-first and beam searches skip some
+			if(strategy == Strategy.BEST_FIRST || strategy == Strategy.BEAM) assertTrue(executed < stats.getCandidates());
+			else assertEquals(stats.getCandidates(), executed);
+		}
+		//breadth-first finds the solution at the last level
+		SolverStats stats = new Solver("3x+4-2=17+2x", SolveFor.SOLVE, round).getStats();
+		assertEquals(5, stats.getIterations());
+	}
+	
+	@Test
+	public void testIllegalArguments() {
+		SolverEngine engine = new SolverEngine(round);
+		try {engine.solve(a("2+x"), SolveFor.SOLVE); fail();} catch(IllegalArgumentException e){}
+		try {engine.solve(new Equation("2=x"), SolveFor.SIMPLIFY); fail();} catch(IllegalArgumentException e){}
+		try {new Options().beamWidth(0); fail();} catch(IllegalArgumentException e){}
+		try {new Options().maxSteps(0); fail();} catch(IllegalArgumentException e){}
+		try {new Options().timeLimit(-1); fail();} catch(IllegalArgumentException e){}
+		try {new Options().subtreeMemoCapacity(-1); fail();} catch(IllegalArgumentException e){}
+	}
+	
+}
@@ -55,10 +55,84 @@ public class SolverTest {
 		assertEquals(new Equation("5=-x³"), new Solver("3x³+5=2x³", solve, round).getSolution().getLastAlgebraicExpression());
 	}
 	
+	@Test
+	public void testBestFirst() {
+		Solver.Strategy bestFirst = Solver.Strategy.BEST_FIRST;
+		assertEquals(new Equation("4=x"), new Solver("2+2=x", solve, round, bestFirst).getSolution().getLastAlgebraicExpression());
+		assertEquals(new Equation("7=x"), new Solver("3+4=x", solve, round, bestFirst).getSolution().getLastAlgebraicExpression());
+		assertEquals(AlgebraicParticle.getInstance("7"), new Solver("3+4", simplify, round, bestFirst).getSolution().getLastAlgebraicExpression());
+		assertEquals(AlgebraicParticle.getInstance("2x+7"), new Solver("5x+7-3x", simplify, round, bestFirst).getSolution().getLastAlgebraicExpression());
+		
+		//a problem that can't be solved should still give the best partial solution
+		Solution partial = new Solver("3x³+5=2x³", solve, round, bestFirst).getSolution();
+		assertEquals("The problem could not be fully solved.", partial.getSummary());
+		assertFalse(partial.isSummaryLast());
+	}
+	
+	@Test
+	public void testParallelBreadthFirst() {
+		Solver.Strategy parallel = Solver.Strategy.PARALLEL_BREADTH_FIRST;
+		//should find exactly the same solutions as the regular breadth-first search
+		String[] equations = {"2+2=x", "4=3x-2x", "3+4=x", "x=(3)/(2)", "x=(3)/((4)/(5))", "3x+4-2=17+2x", "3x³+5=2x³"};
+		for(String eq : equations) {
+			Solution expected = new Solver(eq, solve, round).getSolution(), actual = new Solver(eq, solve, round, parallel).getSolution();
+			assertEquals(expected.length(), actual.length());
+			for(int i = 0; i < expected.length(); i++) {
+				assertEquals(expected.get(i).getAlgebraicExpression(), actual.get(i).getAlgebraicExpression());
+			}
+		}
+		assertEquals(AlgebraicParticle.getInstance("2x+7"), new Solver("5x+7-3x", simplify, round, parallel).getSolution().getLastAlgebraicExpression());
+	}
+	
+	@Test
+	public void testBeam() {
+		assertEquals(new Equation("4=x"), new Solver("2+2=x", solve, round, 1).getSolution().getLastAlgebraicExpression());
+		assertEquals(new Equation("x=15"), new Solver("3x+4-2=17+2x", solve, round, 5).getSolution().getLastAlgebraicExpression());
+		assertEquals(AlgebraicParticle.getInstance("2x+7"), new Solver("5x+7-3x", simplify, round, Solver.Strategy.BEAM).getSolution().getLastAlgebraicExpression());
+	}
+	
+	@Test
+	public void testEngine() {
+		//one engine can solve any number of problems
+		SolverEngine engine = new SolverEngine(round);
+		assertEquals(new Equation("4=x"), new Solver("2+2=x", solve, engine, Deadline.NONE).getSolution().getLastAlgebraicExpression());
+		assertEquals(new Equation("x=15"), new Solver("3x+4-2=17+2x", solve, engine, Deadline.NONE).getSolution().getLastAlgebraicExpression());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testBeamWidthMustBePositive() {
+		new Solver("2+2=x", solve, round, 0);
+	}
+	
+	@Test
+	public void testDeadline() {
+		//a deadline that has already passed leaves us with where we started
+		Solver solver = new Solver("3x+4-2=17+2x", solve, round, Solver.Strategy.BREADTH_FIRST, Deadline.after(0));
+		assertTrue(solver.isTimedOut());
+		assertEquals("The problem could not be fully solved.", solver.getSolution().getSummary());
+		assertFalse(solver.getSolution().isSummaryLast());
+		assertEquals(new Equation("3x+4-2=17+2x"), solver.getSolution().getLastAlgebraicExpression());
+		
+		for(Solver.Strategy strategy : Solver.Strategy.values()) {
+			solver = new Solver("3x+4-2=17+2x", solve, round, strategy, Deadline.after(0));
+			assertTrue(solver.isTimedOut());
+			
+			//plenty of time to solve it
+			solver = new Solver("3x+4-2=17+2x", solve, round, strategy, Deadline.after(60000));
+			assertFalse(solver.isTimedOut());
+			assertEquals(new Equation("x=15"), solver.getSolution().getLastAlgebraicExpression());
+		}
+		
+		solver = new Solver("2+2=x", solve, round, Solver.Strategy.BREADTH_FIRST, Deadline.afterCpuTime(60000));
+		assertFalse(solver.isTimedOut());
+		assertEquals(new Equation("4=x"), solver.getSolution().getLastAlgebraicExpression());
+		assertFalse(new Solver("2+2=x", solve, round).isTimedOut());
+	}
+	
 	@Test
 	public void testIsFirstDegreeExpression() {
-		assertTrue(Solver.isFirstDegreeExpression((Expression) AlgebraicParticle.getInstance("5x+2")));
-		assertTrue(Solver.isFirstDegreeExpression((Expression) AlgebraicParticle.getInstance("5x+2")));
+		assertTrue(SolverEngine.isFirstDegreeExpression((Expression) AlgebraicParticle.getInstance("5x+2")));
+		assertTrue(SolverEngine.isFirstDegreeExpression((Expression) AlgebraicParticle.getInstance("5x+2")));
 	}
 	
 	@Test
@@ -25,10 +25,10 @@ import org.junit.runners.Suite.SuiteClasses;
  * @author Nateowami
  */
 @RunWith(Suite.class)
-@SuiteClasses({ AlgebraicCollectionTest.class, AlgebraicParticleTest.class,
-		EquationTest.class, ExpressionTest.class, FractionTest.class,
-		MixedNumberTest.class, NumberTest.class, RootTest.class, SolutionTest.class,
-		SolverTest.class, TermTest.class, UtilTest.class, VariableTest.class, TreeTest.class })
+@SuiteClasses({ AlgebraicCollectionTest.class, AlgebraicParticleTest.class, CandidatesTest.class, CanonicalFormTest.class,
+		EquationTest.class, ExpressionTest.class, FractionTest.class, InternerTest.class,
+		MixedNumberTest.class, NumberTest.class, RootTest.class, SolutionTest.class, SolutionCacheTest.class,
+		SolverTest.class, SolverEngineTest.class, SmartsMemoTest.class, StateTableTest.class, StepTest.class, SubtreeMemoTest.class, TermTest.class, UtilTest.class, VariableTest.class, TreeTest.class })
 public class SolverTests {
 	
 	/**
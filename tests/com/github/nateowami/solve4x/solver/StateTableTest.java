@@ -0,0 +1,88 @@
+/*
+    Solve4x - An algebra solver that shows its work
+    Copyright (C) 2015  Nathaniel Paulus
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.nateowami.solve4x.solver;
+
+import static org.junit.Assert.*;
+import static com.github.nateowami.solve4x.solver.SolverTests.a;
+
+import org.junit.Test;
+
+/**
+ * @author Nateowami
+ */
+public class StateTableTest {
+	
+	@Test
+	public void testAddAndContains() {
+		for(boolean verify : new boolean[]{false, true}) {
+			StateTable table = new StateTable(verify);
+			assertTrue(table.add(new Equation("2x+3=5")));
+			assertFalse(table.add(new Equation("2x+3=5")));
+			assertTrue(table.contains(new Equation("2x+3=5")));
+			assertFalse(table.contains(new Equation("5=2x+3")));
+			assertTrue(table.add(a("2x+3")));
+			//the order of terms doesn't matter
+			assertFalse(table.add(a("3+2x")));
+			assertTrue(table.add(a("-(2x+3)")));
+			assertTrue(table.add(a("(2x+3)²")));
+			assertTrue(table.add(a("2.5")));
+			assertTrue(table.add(a("25")));
+			assertTrue(table.add(a("2(1)/(2)")));
+			assertTrue(table.add(a("√(2)")));
+			assertTrue(table.add(a("x")));
+			assertTrue(table.add(a("y")));
+			assertFalse(table.add(a("x")));
+			assertEquals(10, table.size());
+		}
+	}
+	
+	@Test
+	public void testSolution() {
+		StateTable table = new StateTable(true);
+		Solution solution = new Solution(a("2x+3"));
+		assertEquals(StateTable.fingerprint(a("2x+3")), solution.fingerprint());
+		assertFalse(table.contains(solution));
+		assertTrue(table.add(solution));
+		assertTrue(table.contains(a("3+2x")));
+		//a copy keeps the fingerprint until a step is added
+		Solution copy = new Solution(solution);
+		assertFalse(table.add(copy));
+		Step step = new Step(a("5"));
+		step.setAlgebraicExpression(a("5"));
+		copy.addStep(step);
+		assertEquals(StateTable.fingerprint(a("5")), copy.fingerprint());
+		assertTrue(table.add(copy));
+	}
+	
+	@Test
+	public void testGrow() {
+		StateTable table = new StateTable();
+		for(int i = 0; i < 1000; i++) assertTrue(table.add(a(Integer.toString(i))));
+		for(int i = 0; i < 1000; i++) assertTrue(table.contains(a(Integer.toString(i))));
+		assertFalse(table.contains(a("1000")));
+		assertEquals(1000, table.size());
+	}
+	
+	@Test
+	public void testFingerprint() {
+		assertEquals(StateTable.fingerprint(new Equation("x=(3)/(4)")), StateTable.fingerprint(new Equation("x=(3)/(4)")));
+		assertFalse(StateTable.fingerprint(a("(3)/(4)")) == StateTable.fingerprint(a("(4)/(3)")));
+		assertFalse(StateTable.fingerprint(a("x")) == StateTable.fingerprint(a("-x")));
+	}
+	
+}
@@ -0,0 +1,78 @@
+/*
+    Solve4x - An algebra solver that shows its work
+    Copyright (C) 2015  Nathaniel Paulus
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.nateowami.solve4x.solver;
+
+import static org.junit.Assert.*;
+import static com.github.nateowami.solve4x.solver.SolverTests.a;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.github.nateowami.solve4x.algorithm.CombineLikeTerms;
+import com.github.nateowami.solve4x.config.RoundingRule;
+
+/**
+ * @author Nateowami
+ */
+public class StepTest {
+	
+	@Test
+	public void testExplain() {
+		Step step = new Step(a("5x")).explain("Combine ").list(new AlgebraicParticle[]{a("2x"), a("3x")}).explain(".");
+		assertEquals(Arrays.<Object>asList("Combine ", a("2x"), " and ", a("3x"), "."), step.getExplanation());
+	}
+	
+	@Test
+	public void testExplainParts() {
+		Step step = new Step(a("5x")).explain("Simplify ", a("2x+3x"), " to get ", a("5x"), ".");
+		assertEquals(Arrays.<Object>asList("Simplify ", a("2x+3x"), " to get ", a("5x"), "."), step.getExplanation());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testExplainIllegalPart() {
+		new Step(a("5x")).explain("Simplify ", 5);
+	}
+	
+	@Test(expected = UnsupportedOperationException.class)
+	public void testExplanationCantBeModified() {
+		new Step(a("5x")).explain("Simplify").getExplanation().add("changed");
+	}
+	
+	@Test
+	public void testBuildExplanation() {
+		final int[] built = {0};
+		Step step = new Step(a("5x")) {
+			@Override
+			protected void buildExplanation() {
+				built[0]++;
+				explain("Simplify ").explain(a("2x+3x"));
+			}
+		};
+		//the explanation isn't built until it's asked for, and then only once
+		assertEquals(0, built[0]);
+		assertEquals(Arrays.<Object>asList("Simplify ", a("2x+3x")), step.getExplanation());
+		assertEquals(Arrays.<Object>asList("Simplify ", a("2x+3x")), step.getExplanation());
+		assertEquals(1, built[0]);
+		
+		//algorithms explain their steps the same way
+		Step combined = new CombineLikeTerms(RoundingRule.ALWAYS).execute(a("2x+3x"));
+		assertTrue(combined.getExplanation().contains(a("5x")));
+	}
+	
+}
@@ -0,0 +1,53 @@
+/*
+    Solve4x - An algebra solver that shows its work
+    Copyright (C) 2015  Nathaniel Paulus
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.nateowami.solve4x.solver;
+
+import static org.junit.Assert.*;
+import static com.github.nateowami.solve4x.solver.SolverTests.a;
+
+import org.junit.Test;
+
+/**
+ * @author Nateowami
+ */
+public class SubtreeMemoTest {
+	
+	@Test
+	public void testGetAndPut() {
+		SubtreeMemo memo = new SubtreeMemo(2);
+		Solution first = new Solution(a("2x+3x")), second = new Solution(a("4+4")), third = new Solution(a("x+x"));
+		assertNull(memo.get(a("2x+3x")));
+		memo.put(a("2x+3x"), first);
+		//algebra is looked up by what it is, not by identity
+		assertSame(first, memo.get(a("2x+3x")));
+		memo.put(a("4+4"), second);
+		//using the first makes the second the least recently used
+		memo.get(a("2x+3x"));
+		memo.put(a("x+x"), third);
+		assertEquals(2, memo.size());
+		assertSame(first, memo.get(a("2x+3x")));
+		assertNull(memo.get(a("4+4")));
+		assertSame(third, memo.get(a("x+x")));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testIllegalCapacity() {
+		new SubtreeMemo(0);
+	}
+	
+}
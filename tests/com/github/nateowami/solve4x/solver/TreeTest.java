@@ -49,6 +49,39 @@ public class TreeTest {
 		//TODO is this a bug? Should the expression be flattened to 3+2+1? Pretty sure that's the
 		//solver's job, but need to make sure it's handeled correctly.
 		assertEquals(a("3+(2+1)"), new Tree(a("3+2(4)/(4)")).get(1).get(1).considerReplacement(a("1")));
+		assertEquals(new Equation("x=2+2"), new Tree(new Equation("x=2+3")).get(1).get(1).considerReplacement(a("2")));
+		assertEquals(a("5x+(2)/(7)"), new Tree(a("5x+(2)/(3)")).get(1).get(1).considerReplacement(a("7")));
+		
+		//only the path up to the top is rebuilt; everything else is shared
+		Equation eq = new Equation("2x+3=5");
+		Equation replaced = (Equation) new Tree(eq).get(0).get(1).considerReplacement(a("4"));
+		assertEquals(new Equation("2x+4=5"), replaced);
+		assertSame(eq.right(), replaced.right());
+		assertSame(((Expression)eq.left()).get(0), ((Expression)replaced.left()).get(0));
+		assertEquals(new Equation("2x+3=5"), eq);
+	}
+	
+	@Test
+	public void testReplacement() {
+		//the new tree has the same algebra as considerReplacement gives
+		Tree tree = new Tree(a("2x(5+3)*2(4)/(5)"));
+		Tree replaced = tree.get(3).get(1).get(0).replacement(a("3"));
+		assertEquals(a("2x(5+3)*2(3)/(5)"), replaced.algebra());
+		assertEquals(a("3"), replaced.get(3).get(1).get(0).algebra());
+		assertEquals(a("(3)/(5)"), replaced.get(3).get(1).algebra());
+		assertEquals(a("2x(5+3)*2(4)/(5)"), tree.algebra());
+		
+		//untouched parts of the tree are shared with the old tree
+		Tree before = new Tree(new Equation("2x+3=5"));
+		Tree after = before.get(0).get(1).replacement(a("4"));
+		assertEquals(new Equation("2x+4=5"), after.algebra());
+		assertSame(before.get(1).algebra(), after.get(1).algebra());
+		assertSame(before.get(0).get(0).algebra(), after.get(0).get(0).algebra());
+		assertEquals(new Tree(new Equation("2x+4=5")).where(Number.class).size(), after.where(Number.class).size());
+		
+		//replacing the top of the tree gives a tree of just the new algebra
+		assertEquals(a("7"), before.replacement(a("7")).algebra());
+		assertEquals(0, before.replacement(a("7")).length());
 	}
 	
 	/**
@@ -62,6 +95,24 @@ public class TreeTest {
 		list.add(t.get(2).get(0));
 		list.add(t.get(2).get(1));
 		assertEquals(list, t.where(Number.class));
+		//asking again gives the same nodes
+		assertEquals(list, t.where(Number.class));
+		
+		//superclasses match every node that is an instance of them, in order
+		List<Tree> particles = new ArrayList<Tree>();
+		particles.add(t);
+		particles.add(t.get(0));
+		particles.add(t.get(1));
+		particles.add(t.get(2));
+		particles.add(t.get(2).get(0));
+		particles.add(t.get(2).get(1));
+		assertEquals(particles, t.where(AlgebraicParticle.class));
+		assertEquals(0, t.where(Fraction.class).size());
+		assertEquals(0, t.where(Equation.class).size());
+		
+		//only the nodes of a subtree
+		list.remove(0);
+		assertEquals(list, t.get(2).where(Number.class));
 		
 		Tree t2 = new Tree(a("4"));
 		assertEquals(a("5"), t2.considerReplacement(a("5")));
@@ -19,6 +19,8 @@ package com.github.nateowami.solve4x.solver;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -92,5 +94,36 @@ public class VariableTest {
 		assertFalse(Variable.parsable("Ü"));
 		assertFalse(Variable.parsable("ó"));
 	}
-
+	
+	/**
+	 * Test method for {@link com.github.nateowami.solve4x.solver.Variable#valueOf(boolean, char, int)}.
+	 */
+	@Test
+	public void testValueOf() {
+		assertSame(Variable.valueOf('x'), Variable.valueOf(true, 'x', 1));
+		assertSame(Variable.valueOf(false, 'Z', 3), Variable.valueOf(false, 'Z', 3));
+		assertEquals(new Variable(false, 'b', 2), Variable.valueOf(false, 'b', 2));
+		assertEquals(new Variable(true, 'y', 9), Variable.valueOf(true, 'y', 9));
+		assertNotSame(Variable.valueOf('x'), Variable.valueOf('X'));
+		//the cached instances are the interned ones
+		assertSame(Variable.valueOf(false, 'y', 2), AlgebraicParticle.getInstance("-y²"));
+		assertSame(Variable.valueOf(false, 'q', 1), Variable.valueOf('q').cloneWithNewSign(false));
+		try {
+			Variable.valueOf('2');
+			fail("No exception thrown when non-alphabetic char passed to valueOf");
+		}
+		catch(ParsingException e){};
+	}
+	
+	@Test
+	public void testCopyUncached() {
+		//variables outside a-z and A-Z can't be cached, but can still be copied
+		Variable theta = new Variable(true, '\u03b8', 1);
+		assertEquals(new Variable(false, '\u03b8', 1), theta.cloneWithNewSign(false));
+		assertEquals(new Variable(false, '\u03b8', 2), theta.cloneWithNewSignAndExponent(false, 2));
+		//and neither can high exponents
+		assertEquals(new Variable(false, 'x', 5), new Variable(true, 'x', 5).cloneWithNewSign(false));
+		assertSame(Variable.valueOf(false, 'x', 2), Variable.valueOf('x').cloneWithNewSignAndExponent(false, 2));
+	}
+	
 }